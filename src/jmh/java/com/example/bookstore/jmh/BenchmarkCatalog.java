@@ -0,0 +1,59 @@
+package com.example.bookstore.jmh;
+
+import com.example.bookstore.OnlineBookstoreApplication;
+import com.example.bookstore.benchmark.CatalogSeeder;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.BookTrigramIndex;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The application without its web server, on a private in-memory H2 database seeded by {@link CatalogSeeder}.
+ */
+final class BenchmarkCatalog implements AutoCloseable {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkCatalog(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    // Extra arguments are passed to the application after the defaults, so they can override them
+    static BenchmarkCatalog start(String searchMode, int books, String... args) {
+        List<String> arguments = new ArrayList<>(List.of("--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:jmh_" + DATABASES.incrementAndGet()
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--bookstore.search.mode=" + searchMode));
+        arguments.addAll(List.of(args));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(OnlineBookstoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(arguments.toArray(String[]::new));
+        CatalogSeeder.seed(context.getBean(BookRepository.class), context.getBean(AuthorRepository.class),
+                context.getBean(GenreRepository.class), books);
+        // Both indexes were built at startup, before the seed
+        context.getBean(BookSearchIndex.class).rebuild();
+        context.getBean(BookTrigramIndex.class).backfill();
+        return new BenchmarkCatalog(context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
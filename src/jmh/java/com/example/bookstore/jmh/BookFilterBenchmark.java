@@ -0,0 +1,123 @@
+package com.example.bookstore.jmh;
+
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.search.BookBitmapIndex;
+import com.example.bookstore.search.BookPriceIndex;
+import com.example.bookstore.search.FilterableBook;
+import com.example.bookstore.search.PricedBook;
+import com.example.bookstore.service.BookFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * {@link BookBitmapIndex} filters and {@link BookPriceIndex} ranges over a synthetic catalog of millions of books,
+ * without a database: both indexes are built from generated rows, 50 genres, 20000 authors, about 80% of books in
+ * stock and prices from 1.00 to 200.00. Add {@code -prof gc} to check the price ranges allocate one array per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookFilterBenchmark {
+
+    private static final int GENRES = 50;
+    private static final int AUTHORS = 20_000;
+
+    @Param({"2000000"})
+    private int books;
+
+    private BookBitmapIndex index;
+    private BookPriceIndex prices;
+    private BookFilter oneGenre;
+    private BookFilter genresInStock;
+    private BookFilter genresAndAuthors;
+
+    @Setup
+    public void setUp() {
+        BookRepository repository = (BookRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{BookRepository.class}, (proxy, method, args) -> {
+                    return switch (method.getName()) {
+                        case "streamFilterableBooks" -> LongStream.rangeClosed(1, books).mapToObj(id ->
+                                new FilterableBook(id, id * 7919 % AUTHORS, id * 31 % GENRES,
+                                        id % 5 == 0 ? 0 : (int) (id % 17), BigDecimal.TEN));
+                        // Rows in price order, as the query returns them
+                        case "streamPricedBooks" -> LongStream.rangeClosed(1, books).mapToObj(id ->
+                                new PricedBook(id, BigDecimal.valueOf(100 + (id - 1) * 19_900 / books, 2)));
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+        index = new BookBitmapIndex(repository, new NoTransactions(), true);
+        index.rebuild();
+        prices = new BookPriceIndex(repository, new NoTransactions(), true);
+        prices.rebuild();
+
+        oneGenre = new BookFilter(Set.of(7L), Set.of(), false);
+        genresInStock = new BookFilter(Set.of(1L, 2L, 3L), Set.of(), true);
+        genresAndAuthors = new BookFilter(Set.of(1L, 2L, 3L, 4L, 5L),
+                LongStream.range(0, 200).map(i -> i * 97).boxed().collect(Collectors.toSet()), true);
+    }
+
+    @Benchmark
+    public List<Long> firstPageOneGenre() {
+        return index.page(oneGenre, 0, 20);
+    }
+
+    @Benchmark
+    public List<Long> deepPageGenresInStock() {
+        return index.page(genresInStock, books / 2, 20);
+    }
+
+    @Benchmark
+    public List<Long> genresAndAuthorsInStock() {
+        return index.page(genresAndAuthors, 0, 20);
+    }
+
+    @Benchmark
+    public long[] cheapestInPriceRange() {
+        return prices.page(2_000, 5_000, Long.MIN_VALUE, Long.MIN_VALUE, 20);
+    }
+
+    @Benchmark
+    public long[] deepPageInPriceRange() {
+        return prices.page(2_000, 5_000, 4_000, books / 2, 20);
+    }
+
+    private static final class NoTransactions implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
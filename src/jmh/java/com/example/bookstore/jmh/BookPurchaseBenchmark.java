@@ -0,0 +1,69 @@
+package com.example.bookstore.jmh;
+
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.dto.PurchaseResult;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookService#purchase} from eight threads: all of them buying one book, so every purchase waits for the row
+ * lock of the one before it, and spread over a thousand books. Stock is large enough never to run out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class BookPurchaseBenchmark {
+
+    @Param({"10000"})
+    private int books;
+
+    private BenchmarkCatalog catalog;
+    private BookService bookService;
+    private List<Long> bookIds;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkCatalog.start("index", books);
+        bookService = catalog.bean(BookService.class);
+        BookRepository bookRepository = catalog.bean(BookRepository.class);
+        List<Book> stocked = bookRepository.findAll().stream().limit(1_000).toList();
+        stocked.forEach(book -> book.setQuantity(Integer.MAX_VALUE));
+        bookIds = bookRepository.saveAll(stocked).stream().map(Book::getId).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public PurchaseResult oneBook() {
+        return bookService.purchase(bookIds.get(0), 1);
+    }
+
+    @Benchmark
+    public PurchaseResult spreadOverBooks() {
+        return bookService.purchase(bookIds.get(ThreadLocalRandom.current().nextInt(bookIds.size())), 1);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.bookstore.jmh;
+
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.service.BookService;
+import com.example.bookstore.service.BookSort;
+import com.example.bookstore.service.Pagination;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.SpecHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code GET /api/books} page of {@link Pagination#MAX_LIMIT} rows read and serialized, as {@link BookView}
+ * projections the way the service reads them, and as fetch-planned {@link Book} entities for comparison. Each call
+ * moves the cursor one page on, wrapping at the end of the catalog. Add {@code -prof gc} for bytes per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookReadModelBenchmark {
+
+    @Param({"20000"})
+    private int books;
+
+    private BenchmarkCatalog catalog;
+    private BookService bookService;
+    private EntityManager entityManager;
+    private ObjectMapper objectMapper;
+    private long[] cursors;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkCatalog.start("index", books);
+        bookService = catalog.bean(BookService.class);
+        entityManager = catalog.bean(EntityManager.class);
+        objectMapper = catalog.bean(ObjectMapper.class);
+        List<Long> ids = catalog.bean(BookRepository.class).findAll().stream().map(Book::getId).sorted().toList();
+        cursors = new long[(ids.size() + Pagination.MAX_LIMIT - 1) / Pagination.MAX_LIMIT];
+        for (int page = 1; page < cursors.length; page++) {
+            cursors[page] = ids.get(page * Pagination.MAX_LIMIT - 1);
+        }
+        if (!entityPage(0L).stream().map(Book::getId).toList()
+                .equals(viewPage(0L).stream().map(BookView::id).toList())) {
+            throw new IllegalStateException("Entity and projection pages hold different books");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public byte[] views() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(viewPage(nextCursor()));
+    }
+
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entityPage(nextCursor()));
+    }
+
+    private long nextCursor() {
+        long cursor = cursors[next];
+        next = next + 1 == cursors.length ? 0 : next + 1;
+        return cursor;
+    }
+
+    private List<BookView> viewPage(long after) {
+        return bookService.getAll(after, Pagination.MAX_LIMIT, BookSort.ID);
+    }
+
+    private List<Book> entityPage(long after) {
+        return entityManager.createQuery("select b from Book b where b.id > :id order by b.id", Book.class)
+                .setParameter("id", after)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Book.WITH_AUTHOR_AND_GENRE))
+                .setMaxResults(Pagination.MAX_LIMIT)
+                .getResultList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bookstore.jmh;
+
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookService#search} in every search mode: predicate building and query execution for {@code database}
+ * and {@code trigram}, the inverted index for {@code index}. {@code byRareTitle} looks for an invented name that few
+ * titles hold, the case the trigram table narrows best; compare it at {@code -p books=100000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookSearchBenchmark {
+
+    @Param({"database", "trigram", "index"})
+    private String mode;
+
+    @Param({"10000"})
+    private int books;
+
+    private BenchmarkCatalog catalog;
+    private BookService bookService;
+
+    @Setup
+    public void setUp() {
+        // No result is short enough to cache, so every call runs the search itself
+        catalog = BenchmarkCatalog.start(mode, books, "--bookstore.cache.search.max-results=-1");
+        bookService = catalog.bean(BookService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public List<BookView> byTitle() {
+        return bookService.search("dragon", null, null);
+    }
+
+    @Benchmark
+    public List<BookView> byRareTitle() {
+        return bookService.search("kalinves", null, null);
+    }
+
+    @Benchmark
+    public List<BookView> byAuthor() {
+        return bookService.search(null, "author silver", null);
+    }
+
+    @Benchmark
+    public List<BookView> byTitleAndGenre() {
+        return bookService.search("crown", null, "genre");
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.bookstore.jmh;
+
+import com.example.bookstore.benchmark.CatalogSeeder;
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.IndexedBook;
+import com.example.bookstore.search.SearchMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * {@link BookSearchIndex} title lookups without a database, on {@link CatalogSeeder} titles. Each title ends in an
+ * invented name, so the vocabulary holds tens of thousands of tokens; {@code rareName} and {@code insideName} find
+ * their tokens by trigram, {@code shortRun} is under three characters and still scans the vocabulary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookSearchIndexBenchmark {
+
+    private static final int AUTHORS = 2_000;
+    private static final int GENRES = 20;
+
+    @Param({"500000"})
+    private int books;
+
+    private BookSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        BookRepository bookRepository = proxy(BookRepository.class, "streamIndexedBooks",
+                () -> LongStream.rangeClosed(1, books).mapToObj(id -> new IndexedBook(id,
+                        CatalogSeeder.title(random), BigDecimal.TEN, id % AUTHORS + 1, id % GENRES + 1)));
+        AuthorRepository authorRepository = proxy(AuthorRepository.class, "findAll",
+                () -> LongStream.rangeClosed(1, AUTHORS).mapToObj(id -> Author.builder().id(id)
+                        .name("Author " + id).build()).toList());
+        GenreRepository genreRepository = proxy(GenreRepository.class, "findAll",
+                () -> LongStream.rangeClosed(1, GENRES).mapToObj(id -> Genre.builder().id(id)
+                        .name("Genre " + id).build()).toList());
+        index = new BookSearchIndex(bookRepository, authorRepository, genreRepository, new NoTransactions(),
+                SearchMode.INDEX);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<Long> rareName() {
+        return index.search("kalinves", null, null);
+    }
+
+    @Benchmark
+    public List<Long> insideName() {
+        return index.search("orsha", null, null);
+    }
+
+    @Benchmark
+    public List<Long> wordAndName() {
+        return index.search("dragon quzen", null, null);
+    }
+
+    @Benchmark
+    public List<Long> shortRun() {
+        return index.search("ix", null, "genre 7");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, String methodName, Supplier<?> result) {
+        return (T) Proxy.newProxyInstance(BookSearchIndexBenchmark.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals(methodName)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return result.get();
+                });
+    }
+
+    private static final class NoTransactions implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bookstore.jmh;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.BookView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of book lists, configured like the one Spring MVC uses: {@code Book} entities as
+ * {@code GET /api/books/{id}} writes them and {@code BookView} projections as the list and search endpoints do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookSerializationBenchmark {
+
+    @Param({"1", "20", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+    private List<BookView> views;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        books = new ArrayList<>(size);
+        views = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Author author = Author.builder().id((long) i % 50).name("Author " + i % 50).build();
+            Genre genre = Genre.builder().id((long) i % 20).name("Genre " + i % 20).build();
+            Book book = Book.builder()
+                    .id((long) i)
+                    .title("Silver Crown of Ravesta " + i)
+                    .price(BigDecimal.valueOf(1999 + i, 2))
+                    .quantity(i % 50)
+                    .author(author)
+                    .genre(genre)
+                    .build();
+            books.add(book);
+            views.add(new BookView(book.getId(), book.getTitle(), book.getPrice(), book.getQuantity(),
+                    author.getId(), author.getName(), genre.getId(), genre.getName()));
+        }
+    }
+
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] views() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(views);
+    }
+}
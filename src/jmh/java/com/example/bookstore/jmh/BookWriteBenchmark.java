@@ -0,0 +1,85 @@
+package com.example.bookstore.jmh;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookService#create} and {@link BookService#update}, both including the author and genre validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookWriteBenchmark {
+
+    @Param({"database", "index"})
+    private String mode;
+
+    @Param({"10000"})
+    private int books;
+
+    private BenchmarkCatalog catalog;
+    private BookService bookService;
+    private List<Long> authorIds;
+    private List<Long> genreIds;
+    private List<Long> bookIds;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        catalog = BenchmarkCatalog.start(mode, books);
+        bookService = catalog.bean(BookService.class);
+        authorIds = catalog.bean(AuthorRepository.class).findAll().stream().map(Author::getId).toList();
+        genreIds = catalog.bean(GenreRepository.class).findAll().stream().map(Genre::getId).toList();
+        bookIds = catalog.bean(BookRepository.class).findAll().stream().map(Book::getId).limit(1_000).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public Book create() {
+        return bookService.create(book(counter++));
+    }
+
+    @Benchmark
+    public Book update() {
+        int n = counter++;
+        return bookService.update(bookIds.get(n % bookIds.size()), book(n), null);
+    }
+
+    private Book book(int n) {
+        return Book.builder()
+                .title("Benchmark Volume " + n)
+                .price(BigDecimal.valueOf(100 + n % 9_900, 2))
+                .quantity(n % 50)
+                .author(Author.builder().id(authorIds.get(n % authorIds.size())).build())
+                .genre(Genre.builder().id(genreIds.get(n % genreIds.size())).build())
+                .build();
+    }
+}
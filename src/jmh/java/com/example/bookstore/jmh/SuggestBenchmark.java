@@ -0,0 +1,140 @@
+package com.example.bookstore.jmh;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.Suggestion;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.SuggestIndex;
+import com.example.bookstore.search.SuggestibleBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * {@link SuggestIndex} lookups and writes over a synthetic catalog, without a database: titles are three words drawn
+ * from a fixed vocabulary, so short prefixes match a large share of the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SuggestBenchmark {
+
+    private static final String[] WORDS = {"dragon", "crown", "silver", "shadow", "river", "winter", "empire",
+            "garden", "stone", "ember", "harbor", "forest", "night", "glass", "iron", "storm", "ocean", "thorn",
+            "falcon", "lantern", "mirror", "raven", "summer", "tower", "wolf", "willow", "ash", "dawn", "ghost", "sea"};
+    private static final int AUTHORS = 5_000;
+    private static final int GENRES = 40;
+
+    @Param({"200000"})
+    private int books;
+
+    private SuggestIndex index;
+    private Author author;
+    private Genre genre;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BookRepository bookRepository = proxy(BookRepository.class, "streamSuggestibleBooks",
+                () -> LongStream.rangeClosed(1, books).mapToObj(id -> new SuggestibleBook(id, title(id),
+                        (int) (id * 7 % 50), id % AUTHORS + 1, id % GENRES + 1)));
+        AuthorRepository authorRepository = proxy(AuthorRepository.class, "findAll",
+                () -> LongStream.rangeClosed(1, AUTHORS).mapToObj(id -> Author.builder().id(id)
+                        .name(WORDS[(int) (id % WORDS.length)] + " Author " + id).build()).toList());
+        GenreRepository genreRepository = proxy(GenreRepository.class, "findAll",
+                () -> LongStream.rangeClosed(1, GENRES).mapToObj(id -> Genre.builder().id(id)
+                        .name("Genre " + WORDS[(int) (id % WORDS.length)] + " " + id).build()).toList());
+        index = new SuggestIndex(bookRepository, authorRepository, genreRepository, new NoTransactions(), true, 10);
+        index.rebuild();
+
+        author = Author.builder().id(1L).build();
+        genre = Genre.builder().id(1L).build();
+        nextId = books + 1L;
+    }
+
+    @Benchmark
+    public List<Suggestion> oneLetter() {
+        return index.suggest("s", 10);
+    }
+
+    @Benchmark
+    public List<Suggestion> word() {
+        return index.suggest("lantern", 10);
+    }
+
+    @Benchmark
+    public List<Suggestion> twoWords() {
+        return index.suggest("raven ember", 10);
+    }
+
+    @Benchmark
+    public List<Suggestion> unknown() {
+        return index.suggest("qu", 10);
+    }
+
+    // A new book, with its author and genre gaining one unit of weight
+    @Benchmark
+    public void indexBook() {
+        long id = nextId++;
+        index.indexBook(Book.builder().id(id).title(title(id)).price(BigDecimal.TEN).quantity(5)
+                .author(author).genre(genre).build());
+    }
+
+    private static String title(long id) {
+        return WORDS[(int) (id % WORDS.length)] + " " + WORDS[(int) (id / 7 % WORDS.length)] + " "
+                + WORDS[(int) (id / 131 % WORDS.length)] + " " + id;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, String methodName, Supplier<?> result) {
+        return (T) Proxy.newProxyInstance(SuggestBenchmark.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals(methodName)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return result.get();
+                });
+    }
+
+    private static final class NoTransactions implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bookstore.loadtest;
+
+import com.example.bookstore.OnlineBookstoreApplication;
+import com.example.bookstore.benchmark.CatalogSeeder;
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.BookTrigramIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The application on a random port and an in-memory H2 database, seeded with a generated catalog. Extra
+ * {@code appArgs} are passed to the application as is, for example {@code --spring.threads.virtual.enabled=true}.
+ */
+final class LoadTestCatalog implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final List<Long> bookIds;
+    private final List<Long> authorIds;
+    private final List<Long> genreIds;
+
+    private LoadTestCatalog(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.bookIds = context.getBean(BookRepository.class).findAll().stream().map(Book::getId).toList();
+        this.authorIds = context.getBean(AuthorRepository.class).findAll().stream().map(Author::getId).toList();
+        this.genreIds = context.getBean(GenreRepository.class).findAll().stream().map(Genre::getId).toList();
+    }
+
+    static LoadTestCatalog start(int books, String searchMode, long statementLatencyMillis, List<String> appArgs) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--bookstore.search.mode=" + searchMode,
+                "--" + StatementLatency.PROPERTY + "=" + statementLatencyMillis));
+        args.addAll(appArgs);
+        SpringApplicationBuilder application = statementLatencyMillis > 0
+                ? new SpringApplicationBuilder(OnlineBookstoreApplication.class, StatementLatency.class)
+                : new SpringApplicationBuilder(OnlineBookstoreApplication.class);
+        ConfigurableApplicationContext context = application
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+        CatalogSeeder.seed(context.getBean(BookRepository.class), context.getBean(AuthorRepository.class),
+                context.getBean(GenreRepository.class), books);
+        // Both indexes were built at startup, before the seed
+        context.getBean(BookSearchIndex.class).rebuild();
+        context.getBean(BookTrigramIndex.class).backfill();
+        return new LoadTestCatalog(context);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    int books() {
+        return bookIds.size();
+    }
+
+    long randomBookId(ThreadLocalRandom random) {
+        return bookIds.get(random.nextInt(bookIds.size()));
+    }
+
+    long randomAuthorId(ThreadLocalRandom random) {
+        return authorIds.get(random.nextInt(authorIds.size()));
+    }
+
+    String randomWord(ThreadLocalRandom random) {
+        return CatalogSeeder.WORDS[random.nextInt(CatalogSeeder.WORDS.length)];
+    }
+
+    String randomBookJson(ThreadLocalRandom random) {
+        return String.format("{\"title\":\"Load Test Volume %d\",\"price\":%d.%02d,\"quantity\":%d,"
+                        + "\"author\":{\"id\":%d},\"genre\":{\"id\":%d}}",
+                random.nextInt(1_000_000), 1 + random.nextInt(99), random.nextInt(100), random.nextInt(50),
+                randomAuthorId(random), genreIds.get(random.nextInt(genreIds.size())));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
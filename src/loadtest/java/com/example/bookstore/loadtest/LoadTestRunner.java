@@ -0,0 +1,240 @@
+package com.example.bookstore.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load test against the application on a generated H2 catalog.
+ *
+ * <p>Requests are issued on a fixed schedule at {@code loadtest.rate} per second, whether or not earlier ones have
+ * completed. Response time is measured from the scheduled start, so time spent queued behind a slow server counts
+ * (no coordinated omission); service time is measured from the actual send. Run with {@code mvn -Ploadtest test},
+ * settings are the {@code loadtest.*} properties of that profile.
+ */
+public final class LoadTestRunner {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final Settings settings;
+    private final LoadTestCatalog catalog;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String baseUrl;
+
+    private LoadTestRunner(Settings settings, LoadTestCatalog catalog) {
+        this.settings = settings;
+        this.catalog = catalog;
+        this.baseUrl = catalog.baseUrl();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        try (LoadTestCatalog catalog = LoadTestCatalog.start(settings.books(), settings.searchMode(),
+                settings.statementLatencyMillis(), settings.appArgs())) {
+            LoadTestRunner runner = new LoadTestRunner(settings, catalog);
+            runner.run(settings.warmup());
+            Map<Operation, Stats> stats = runner.run(settings.duration());
+            runner.report(stats);
+        }
+        System.exit(0);
+    }
+
+    private Map<Operation, Stats> run(Duration duration) throws InterruptedException {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        settings.mix().operations().forEach(operation -> stats.put(operation, new Stats()));
+        ExecutorService workers = Executors.newFixedThreadPool(settings.connections());
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = settings.mix().next(random);
+            workers.execute(() -> call(operation, scheduled, stats.get(operation)));
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+        return stats;
+    }
+
+    private void call(Operation operation, long scheduled, Stats stats) {
+        long sent = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(
+                    operation.request(baseUrl, catalog, ThreadLocalRandom.current()),
+                    HttpResponse.BodyHandlers.discarding());
+            long done = System.nanoTime();
+            stats.responseTime.recordValue(Math.min(done - scheduled, HIGHEST_TRACKABLE_NANOS));
+            stats.serviceTime.recordValue(Math.min(done - sent, HIGHEST_TRACKABLE_NANOS));
+            if (response.statusCode() >= 400) {
+                stats.errors.increment();
+            }
+        } catch (IOException ex) {
+            stats.errors.increment();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report(Map<Operation, Stats> stats) throws IOException {
+        Path directory = Path.of(settings.reportDirectory());
+        Files.createDirectories(directory);
+        double seconds = settings.duration().toMillis() / 1000.0;
+
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long errors = 0;
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("rate=%d req/s duration=%.0f s books=%d connections=%d search-mode=%s mix=%s",
+                settings.rate(), seconds, catalog.books(), settings.connections(), settings.searchMode(),
+                settings.mix()));
+        lines.add(String.format("java=%s statement-latency=%d ms app-args=%s", Runtime.version(),
+                settings.statementLatencyMillis(), String.join(" ", settings.appArgs())));
+        lines.add("Response time is measured from the scheduled start, service time from the actual send (ms).");
+        lines.add("");
+        lines.add(String.format("%-14s %8s %7s %9s %9s %9s %9s %9s %9s %11s %11s", "operation", "count", "errors",
+                "req/s", "p50", "p90", "p99", "p99.9", "max", "service-p50", "service-p99"));
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats operation = entry.getValue();
+            total.add(operation.responseTime);
+            errors += operation.errors.sum();
+            lines.add(row(entry.getKey().label(), operation.responseTime, operation.errors.sum(), seconds,
+                    operation.serviceTime));
+            writeDistribution(directory.resolve(entry.getKey().label() + ".hgrm"), operation.responseTime);
+        }
+        lines.add(row("total", total, errors, seconds, null));
+        writeDistribution(directory.resolve("total.hgrm"), total);
+
+        Path report = directory.resolve("report.txt");
+        Files.write(report, lines, StandardCharsets.UTF_8);
+        lines.forEach(System.out::println);
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+
+    private static String row(String label, Histogram responseTime, long errors, double seconds,
+                              Histogram serviceTime) {
+        return String.format("%-14s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11s %11s", label,
+                responseTime.getTotalCount(), errors, responseTime.getTotalCount() / seconds,
+                millis(responseTime, 50), millis(responseTime, 90), millis(responseTime, 99),
+                millis(responseTime, 99.9), responseTime.getMaxValue() / 1e6,
+                serviceTime == null ? "" : String.format("%.2f", millis(serviceTime, 50)),
+                serviceTime == null ? "" : String.format("%.2f", millis(serviceTime, 99))).stripTrailing();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    // HdrHistogram percentile distribution in milliseconds, readable by its plotter
+    private static void writeDistribution(Path file, Histogram histogram) {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, 1e6);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static final class Stats {
+        private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+
+    record Settings(int books, int rate, Duration warmup, Duration duration, int connections, String searchMode,
+                    Mix mix, long statementLatencyMillis, List<String> appArgs, String reportDirectory) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("loadtest.books", 10_000),
+                    Integer.getInteger("loadtest.rate", 200),
+                    Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10)),
+                    Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30)),
+                    Integer.getInteger("loadtest.connections", 64),
+                    System.getProperty("loadtest.search-mode", "index"),
+                    Mix.parse(System.getProperty("loadtest.mix", Mix.DEFAULT)),
+                    Long.getLong("loadtest.statement-latency-ms", 0),
+                    Arrays.stream(System.getProperty("loadtest.app-args", "").split(","))
+                            .map(String::trim)
+                            .filter(arg -> !arg.isEmpty())
+                            .toList(),
+                    System.getProperty("loadtest.report", "target/loadtest"));
+        }
+    }
+
+    /**
+     * Weighted operations, written as {@code get-book:40,search-books:20,...}.
+     */
+    record Mix(List<Operation> operations, int[] cumulativeWeights) {
+
+        static final String DEFAULT = "get-book:40,list-books:15,search-books:20,get-author:5,list-authors:5,"
+                + "list-genres:5,create-book:5,update-book:5";
+
+        static Mix parse(String spec) {
+            List<Operation> operations = new ArrayList<>();
+            List<Integer> weights = new ArrayList<>();
+            int sum = 0;
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.split(":");
+                int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+                if (weight <= 0) {
+                    continue;
+                }
+                operations.add(Operation.fromLabel(parts[0]));
+                sum += weight;
+                weights.add(sum);
+            }
+            if (operations.isEmpty()) {
+                throw new IllegalArgumentException("Load test mix has no operations: " + spec);
+            }
+            return new Mix(List.copyOf(operations), weights.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        Operation next(ThreadLocalRandom random) {
+            int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (pick < cumulativeWeights[i]) {
+                    return operations.get(i);
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder spec = new StringBuilder();
+            for (int i = 0; i < operations.size(); i++) {
+                int weight = cumulativeWeights[i] - (i == 0 ? 0 : cumulativeWeights[i - 1]);
+                spec.append(i == 0 ? "" : ",").append(operations.get(i).label()).append(':').append(weight);
+            }
+            return spec.toString();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bookstore.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The requests a load test can mix, named as in {@code -Dloadtest.mix}.
+ */
+enum Operation {
+    GET_BOOK {
+        @Override
+        HttpRequest request(String baseUrl, LoadTestCatalog catalog, ThreadLocalRandom random) {
+            return get(baseUrl + "/api/books/" + catalog.randomBookId(random));
+        }
+    },
+    LIST_BOOKS {
+        @Override
+        HttpRequest request(String baseUrl, LoadTestCatalog catalog, ThreadLocalRandom random) {
+            return get(baseUrl + "/api/books?limit=20&after=" + catalog.randomBookId(random));
+        }
+    },
+    SEARCH_BOOKS {
+        @Override
+        HttpRequest request(String baseUrl, LoadTestCatalog catalog, ThreadLocalRandom random) {
+            return get(baseUrl + "/api/books/search?title=" + catalog.randomWord(random));
+        }
+    },
+    GET_AUTHOR {
+        @Override
+        HttpRequest request(String baseUrl, LoadTestCatalog catalog, ThreadLocalRandom random) {
+            return get(baseUrl + "/api/authors/" + catalog.randomAuthorId(random));
+        }
+    },
+    LIST_AUTHORS {
+        @Override
+        HttpRequest request(String baseUrl, LoadTestCatalog catalog, ThreadLocalRandom random) {
+            return get(baseUrl + "/api/authors?limit=20");
+        }
+    },
+    LIST_GENRES {
+        @Override
+        HttpRequest request(String baseUrl, LoadTestCatalog catalog, ThreadLocalRandom random) {
+            return get(baseUrl + "/api/genres");
+        }
+    },
+    CREATE_BOOK {
+        @Override
+        HttpRequest request(String baseUrl, LoadTestCatalog catalog, ThreadLocalRandom random) {
+            return send("POST", baseUrl + "/api/books", catalog.randomBookJson(random));
+        }
+    },
+    UPDATE_BOOK {
+        @Override
+        HttpRequest request(String baseUrl, LoadTestCatalog catalog, ThreadLocalRandom random) {
+            return send("PUT", baseUrl + "/api/books/" + catalog.randomBookId(random), catalog.randomBookJson(random));
+        }
+    };
+
+    abstract HttpRequest request(String baseUrl, LoadTestCatalog catalog, ThreadLocalRandom random);
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    static Operation fromLabel(String label) {
+        return valueOf(label.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private static HttpRequest send(String method, String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bookstore.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stands in for the network round trip to MySQL: every statement waits {@code loadtest.statement-latency-ms} before
+ * it reaches H2. Only registered when that latency is positive.
+ */
+@Configuration(proxyBeanMethods = false)
+class StatementLatency {
+
+    static final String PROPERTY = "loadtest.statement-latency-ms";
+
+    @Bean
+    static BeanPostProcessor delayedStatements(Environment environment) {
+        long millis = environment.getRequiredProperty(PROPERTY, Long.class);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? delayed(dataSource, millis) : bean;
+            }
+        };
+    }
+
+    private static DataSource delayed(DataSource dataSource, long millis) {
+        return proxy(dataSource, List.of(DataSource.class), (method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection ? delayed(connection, millis) : result;
+        });
+    }
+
+    private static Connection delayed(Connection connection, long millis) {
+        return proxy(connection, List.of(Connection.class), (method, args) -> {
+            Object result = invoke(connection, method, args);
+            return result instanceof Statement statement ? delayed(statement, millis) : result;
+        });
+    }
+
+    // Keeps the PreparedStatement or CallableStatement interface the caller asked for
+    private static Statement delayed(Statement statement, long millis) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>(List.of(statement.getClass().getInterfaces()));
+        interfaces.add(Statement.class);
+        return proxy(statement, List.copyOf(interfaces), (method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                Thread.sleep(millis);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, List<Class<?>> interfaces, Handler handler) {
+        return (T) Proxy.newProxyInstance(StatementLatency.class.getClassLoader(),
+                interfaces.toArray(Class<?>[]::new), (proxy, method, args) -> handler.invoke(method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private interface Handler {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+}
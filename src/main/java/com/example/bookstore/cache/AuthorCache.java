@@ -0,0 +1,37 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.repository.AuthorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+public class AuthorCache {
+
+    private final AuthorRepository authorRepository;
+    private final BoundedCache<Long, Author> cache;
+
+    public AuthorCache(AuthorRepository authorRepository,
+                       @Value("${bookstore.cache.authors.max-size:10000}") int maxSize) {
+        this.authorRepository = authorRepository;
+        this.cache = new BoundedCache<>(maxSize);
+    }
+
+    public Optional<Author> findById(Long id) {
+        return cache.get(id, authorRepository::findById);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bookstore.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Publishes hit, miss, eviction and size counts and the hit ratio of the application caches, tagged by {@code cache}.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    private final AuthorCache authorCache;
+    private final GenreCache genreCache;
+    private final CatalogSnapshotCache snapshotCache;
+    private final SearchResultCache searchCache;
+
+    public CacheMetrics(AuthorCache authorCache, GenreCache genreCache, CatalogSnapshotCache snapshotCache,
+                        SearchResultCache searchCache) {
+        this.authorCache = authorCache;
+        this.genreCache = genreCache;
+        this.snapshotCache = snapshotCache;
+        this.searchCache = searchCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "authors", authorCache::stats);
+        bind(registry, "genres", genreCache::stats);
+        bind(registry, "snapshots", snapshotCache::stats);
+        bind(registry, "search", searchCache::stats);
+    }
+
+    private static void bind(MeterRegistry registry, String cache, Supplier<CacheStats> stats) {
+        FunctionCounter.builder("bookstore.cache.gets", stats, s -> s.get().hits())
+                .tag("cache", cache).tag("result", "hit")
+                .description("Cache lookups")
+                .register(registry);
+        FunctionCounter.builder("bookstore.cache.gets", stats, s -> s.get().misses())
+                .tag("cache", cache).tag("result", "miss")
+                .description("Cache lookups")
+                .register(registry);
+        FunctionCounter.builder("bookstore.cache.evictions", stats, s -> s.get().evictions())
+                .tag("cache", cache)
+                .description("Entries evicted by the size bound")
+                .register(registry);
+        Gauge.builder("bookstore.cache.size", stats, s -> s.get().size())
+                .tag("cache", cache)
+                .description("Entries currently cached")
+                .register(registry);
+        Gauge.builder("bookstore.cache.hit.ratio", stats, s -> s.get().hitRatio())
+                .tag("cache", cache)
+                .description("Share of lookups answered from the cache since startup")
+                .register(registry);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bookstore.cache;
+
+public record CacheStats(long hits, long misses, long evictions, int size) {
+
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
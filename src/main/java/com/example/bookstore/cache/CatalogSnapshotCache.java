@@ -0,0 +1,62 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.example.bookstore.service.Pagination;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized list pages keyed by catalog version, so repeated reads of small, hot tables
+ * skip the database and Jackson. A write moves the section's version and old pages age out of the LRU.
+ */
+@Component
+public class CatalogSnapshotCache {
+
+    private final ObjectMapper objectMapper;
+    private final CatalogVersions catalogVersions;
+    private final BoundedCache<Key, JsonSnapshot> cache;
+
+    public CatalogSnapshotCache(ObjectMapper objectMapper,
+                                CatalogVersions catalogVersions,
+                                @Value("${bookstore.cache.snapshots.max-size:256}") int maxSize) {
+        this.objectMapper = objectMapper;
+        this.catalogVersions = catalogVersions;
+        this.cache = new BoundedCache<>(maxSize);
+    }
+
+    public JsonSnapshot page(Section section, Long after, Integer limit, Supplier<?> loader) {
+        // Read the version before the data: a write racing with the load can only make the entry newer
+        long version = catalogVersions.current(section);
+        Key key = new Key(section, version, Pagination.cursorOrStart(after), Pagination.clampLimit(limit));
+        return cache.get(key, ignored -> Optional.of(encode(loader.get(), catalogVersions.tag(version))))
+                .orElseThrow();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private JsonSnapshot encode(Object body, String tag) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 32);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(json);
+            }
+            return new JsonSnapshot(json, buffer.toByteArray(), "\"" + tag + "\"", "\"" + tag + "-gzip\"");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private record Key(Section section, long version, long after, int limit) {
+    }
+}
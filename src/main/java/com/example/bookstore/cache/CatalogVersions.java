@@ -0,0 +1,53 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.service.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters for each part of the catalog, used as ETags for list responses.
+ * Counters move only after the writing transaction commits, so a reader that takes the tag
+ * before querying can never pair a new tag with old data.
+ */
+@Component
+public class CatalogVersions {
+
+    public enum Section {
+        BOOKS, AUTHORS, GENRES
+    }
+
+    // Distinguishes counters of this process from those of an earlier run
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Section, AtomicLong> counters = new EnumMap<>(Section.class);
+
+    public CatalogVersions() {
+        for (Section section : Section.values()) {
+            counters.put(section, new AtomicLong());
+        }
+    }
+
+    public long current(Section section) {
+        return counters.get(section).get();
+    }
+
+    public String tag(Section section) {
+        return tag(current(section));
+    }
+
+    public String tag(long version) {
+        return epoch + "-" + version;
+    }
+
+    public void changed(Section... sections) {
+        AfterCommit.run(() -> bump(sections));
+    }
+
+    private void bump(Section... sections) {
+        for (Section section : sections) {
+            counters.get(section).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.GenreRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+public class GenreCache {
+
+    private final GenreRepository genreRepository;
+    private final BoundedCache<Long, Genre> cache;
+
+    public GenreCache(GenreRepository genreRepository,
+                      @Value("${bookstore.cache.genres.max-size:1000}") int maxSize) {
+        this.genreRepository = genreRepository;
+        this.cache = new BoundedCache<>(maxSize);
+    }
+
+    public Optional<Genre> findById(Long id) {
+        return cache.get(id, genreRepository::findById);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bookstore.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A response body encoded once, as plain and gzip-compressed JSON, with strong ETags for each variant.
+ */
+public record JsonSnapshot(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+
+    // gzip is refused when it is not listed or its q-value is zero, in any spelling such as q=0.0
+    public boolean useGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip") && quality(parts) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // An unreadable q-value counts as zero
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            int equals = parts[i].indexOf('=');
+            if (equals > 0 && parts[i].substring(0, equals).trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(parts[i].substring(equals + 1).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    public ResponseEntity<byte[]> toResponse(boolean gzipped) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(gzipped ? gzipEtag : etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzipped) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzipped ? gzip : json);
+    }
+}
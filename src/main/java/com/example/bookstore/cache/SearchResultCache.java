@@ -0,0 +1,65 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.example.bookstore.dto.BookView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Search results keyed by normalized query and books version, so repeated storefront searches skip the index and the
+ * database. Every write that can change a result moves the books version; entries of older versions are never read
+ * again and age out of the LRU. Results longer than the cap are returned without being cached.
+ */
+@Component
+public class SearchResultCache {
+
+    private final CatalogVersions catalogVersions;
+    private final BoundedCache<Key, List<BookView>> cache;
+    private final int maxResults;
+
+    public SearchResultCache(CatalogVersions catalogVersions,
+                             @Value("${bookstore.cache.search.max-size:1000}") int maxSize,
+                             @Value("${bookstore.cache.search.max-results:500}") int maxResults) {
+        this.catalogVersions = catalogVersions;
+        this.cache = new BoundedCache<>(maxSize);
+        this.maxResults = maxResults;
+    }
+
+    // The loader gets the normalized query, so every spelling that shares an entry gets the same results
+    public List<BookView> get(Query query, Function<Query, List<BookView>> loader) {
+        // Read the version before the data: a write racing with the load can only make the entry newer
+        Key key = new Key(catalogVersions.current(Section.BOOKS), query);
+        return cache.get(key, k -> Collections.unmodifiableList(loader.apply(query)),
+                results -> results.size() <= maxResults);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Search parameters trimmed and lower-cased; blank ones become {@code null}.
+     */
+    public record Query(String title, String author, String genre) {
+
+        public static Query of(String title, String author, String genre) {
+            return new Query(normalize(title), normalize(author), normalize(genre));
+        }
+
+        private static String normalize(String value) {
+            return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record Key(long version, Query query) {
+    }
+}
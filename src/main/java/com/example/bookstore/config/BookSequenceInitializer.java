@@ -0,0 +1,48 @@
+package com.example.bookstore.config;
+
+import com.example.bookstore.domain.Book;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Book ids come from the pooled {@code book_seq} generator, which MySQL emulates with a table that Hibernate creates
+ * at 1. Books inserted earlier with {@code AUTO_INCREMENT} ids would collide with it, so the table is moved past
+ * {@code max(id)} at startup, before the first insert. Databases with native sequences are left alone.
+ */
+@Slf4j
+@Component
+public class BookSequenceInitializer implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Taking the EntityManagerFactory orders this after schema update, which creates the book_seq table
+    public BookSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if ("MySQL".equalsIgnoreCase(database)) {
+            seedTable();
+        }
+    }
+
+    void seedTable() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from books", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // The pooled optimizer hands out the ids (next_val - allocation size, next_val]; only ever moves forward,
+        // so concurrent starts and ids already handed out are safe
+        long nextValue = maxId + Book.ID_ALLOCATION_SIZE;
+        if (jdbcTemplate.update("update book_seq set next_val = ? where next_val < ?", nextValue, nextValue) > 0) {
+            log.info("Moved book_seq to {} past existing book ids", nextValue);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bookstore.config;
+
+import com.example.bookstore.sql.CountingStatementInspector;
+import com.example.bookstore.sql.SlowQueryLog;
+import com.example.bookstore.sql.TimedDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration(proxyBeanMethods = false)
+public class SqlStatementConfig {
+
+    // Feeds per-request statement budgets and the statement assertions in tests
+    @Bean
+    public HibernatePropertiesCustomizer statementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+    }
+
+    // Times every JDBC statement so slow ones reach the SlowQueryLog; static, as a post-processor must be
+    @Bean
+    @ConditionalOnProperty(name = "bookstore.sql.slow-query.enabled", matchIfMissing = true)
+    public static BeanPostProcessor slowQueryDataSource(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource
+                        ? TimedDataSource.wrap(dataSource, slowQueryLog.getObject())
+                        : bean;
+            }
+        };
+    }
+}
@@ -6,9 +6,14 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -22,15 +27,28 @@ import lombok.Setter;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "books")
+@NamedEntityGraph(name = Book.WITH_AUTHOR_AND_GENRE, attributeNodes = {
+        @NamedAttributeNode("author"),
+        @NamedAttributeNode("genre")
+})
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_title_id", columnList = "title, id"),
+        @Index(name = "idx_books_price_id", columnList = "price, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Book {
+    // Fetch plan for reads that are serialized to clients; associations are lazy everywhere else
+    public static final String WITH_AUTHOR_AND_GENRE = "Book.withAuthorAndGenre";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Sequence ids (pooled by 50) let Hibernate batch inserts, which IDENTITY prevents
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -47,13 +65,17 @@ public class Book {
     @PositiveOrZero(message = "Quantity must be zero or positive")
     private int quantity;
 
-    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "author_id", nullable = false)
     @NotNull(message = "Author cannot be null")
     private Author author;
 
-    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "genre_id", nullable = false)
     @NotNull(message = "Genre cannot be null")
     private Genre genre;
+
+    // Optimistic lock and ETag source; bumped by every entity update and by stock purchases
+    @Version
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.example.bookstore.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+// Trigrams are stored as three packed UTF-16 code units so collation never merges distinct ones
+@Entity
+@Table(name = "book_trigrams", indexes = {
+        @Index(name = "idx_book_trigrams_trigram_book", columnList = "trigram, book_id"),
+        @Index(name = "idx_book_trigrams_book", columnList = "book_id")
+})
+@IdClass(BookTrigram.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class BookTrigram {
+
+    @Id
+    @Column(nullable = false)
+    private Long trigram;
+
+    @Id
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Book book;
+
+    public BookTrigram(Long trigram, Long bookId) {
+        this.trigram = trigram;
+        this.bookId = bookId;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long trigram;
+        private Long bookId;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bookstore.dto;
+
+import java.math.BigDecimal;
+
+// Read-only book row selected by JPQL constructor expressions; serializes like the Book entity
+public record BookView(Long id, String title, BigDecimal price, int quantity, Ref author, Ref genre) {
+
+    public BookView(Long id, String title, BigDecimal price, int quantity,
+                    Long authorId, String authorName, Long genreId, String genreName) {
+        this(id, title, price, quantity, new Ref(authorId, authorName), new Ref(genreId, genreName));
+    }
+
+    public record Ref(Long id, String name) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.bookstore.dto;
+
+import java.util.List;
+
+public record BulkCreateResult(int requested, int created, List<Long> ids, List<BulkItemError> errors) {
+}
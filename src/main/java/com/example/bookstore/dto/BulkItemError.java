@@ -0,0 +1,5 @@
+package com.example.bookstore.dto;
+
+// index is the position in a bulk request, or the 1-based row number of an import
+public record BulkItemError(long index, String field, String message) {
+}
@@ -0,0 +1,4 @@
+package com.example.bookstore.dto;
+
+public record DeleteResult(Long id, int booksDeleted) {
+}
@@ -0,0 +1,4 @@
+package com.example.bookstore.dto;
+
+public record FacetCount(Long id, String name, long count) {
+}
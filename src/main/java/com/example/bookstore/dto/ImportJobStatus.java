@@ -0,0 +1,19 @@
+package com.example.bookstore.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ImportJobStatus(String id,
+                              ImportState state,
+                              long rowsRead,
+                              long committedRows,
+                              long booksCreated,
+                              long authorsCreated,
+                              long genresCreated,
+                              long errorCount,
+                              List<BulkItemError> errors,
+                              double rowsPerSecond,
+                              Instant startedAt,
+                              Instant finishedAt,
+                              String failure) {
+}
@@ -0,0 +1,7 @@
+package com.example.bookstore.dto;
+
+public enum ImportState {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
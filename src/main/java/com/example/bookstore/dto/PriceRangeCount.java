@@ -0,0 +1,7 @@
+package com.example.bookstore.dto;
+
+import java.math.BigDecimal;
+
+// Books priced from (inclusive) up to to (exclusive); to is null for the open-ended top range
+public record PriceRangeCount(BigDecimal from, BigDecimal to, long count) {
+}
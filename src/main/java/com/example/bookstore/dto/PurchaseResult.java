@@ -0,0 +1,4 @@
+package com.example.bookstore.dto;
+
+public record PurchaseResult(Long bookId, int purchased, int remaining) {
+}
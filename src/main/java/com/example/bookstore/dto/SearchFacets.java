@@ -0,0 +1,8 @@
+package com.example.bookstore.dto;
+
+import java.util.List;
+
+// Counts for the books a search matches; genre and author lists hold the largest values only
+public record SearchFacets(long total, List<FacetCount> genres, List<FacetCount> authors,
+                           List<PriceRangeCount> prices) {
+}
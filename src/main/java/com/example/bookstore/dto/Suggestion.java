@@ -0,0 +1,5 @@
+package com.example.bookstore.dto;
+
+// One typeahead completion: type is title, author or genre; id is the book, author or genre id
+public record Suggestion(String type, Long id, String text, long weight) {
+}
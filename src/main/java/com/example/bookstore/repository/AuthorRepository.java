@@ -1,12 +1,36 @@
 package com.example.bookstore.repository;
 
 import com.example.bookstore.domain.Author;
+import com.example.bookstore.dto.Suggestion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
     Optional<Author> findByNameIgnoreCase(String name);
-}
\ No newline at end of file
+
+    List<Author> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select a.id from Author a where a.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Prefix match at the start of the name or of a later space-separated word, weighted by number of books
+    @Query("select new com.example.bookstore.dto.Suggestion('author', a.id, a.name, count(b)) "
+            + "from Author a left join a.books b where lower(a.name) like :start or lower(a.name) like :word "
+            + "group by a.id, a.name order by count(b) desc, a.name asc, a.id asc")
+    List<Suggestion> suggest(@Param("start") String start, @Param("word") String word, Limit limit);
+
+    // Deletes the row without loading the entity, so the books collection is never initialized
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Author a where a.id = :id")
+    int deleteRowById(@Param("id") Long id);
+}
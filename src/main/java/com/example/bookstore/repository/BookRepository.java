@@ -1,9 +1,122 @@
 package com.example.bookstore.repository;
 
 import com.example.bookstore.domain.Book;
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.dto.Suggestion;
+import com.example.bookstore.search.FilterableBook;
+import com.example.bookstore.search.IndexedBook;
+import com.example.bookstore.search.PricedBook;
+import com.example.bookstore.search.SuggestibleBook;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
+
+    // Projection prefix for list and search reads: no entities, no persistence-context snapshots
+    String VIEW = "select new com.example.bookstore.dto.BookView(b.id, b.title, b.price, b.quantity, "
+            + "a.id, a.name, g.id, g.name) from Book b join b.author a join b.genre g ";
+
+    @EntityGraph(Book.WITH_AUTHOR_AND_GENRE)
+    Optional<Book> findWithAuthorAndGenreById(Long id);
+
+    @Query(VIEW + "where b.id > :id order by b.id asc")
+    List<BookView> findViewsByIdAfter(@Param("id") Long id, Limit limit);
+
+    @Query(VIEW + "order by b.title asc, b.id asc")
+    List<BookView> findViewsOrderByTitle(Limit limit);
+
+    @Query(VIEW + "where b.title > :title or (b.title = :title and b.id > :id) order by b.title asc, b.id asc")
+    List<BookView> findViewPageByTitleAfter(@Param("title") String title, @Param("id") Long id, Limit limit);
+
+    @Query(VIEW + "order by b.price asc, b.id asc")
+    List<BookView> findViewsOrderByPrice(Limit limit);
+
+    @Query(VIEW + "where b.price > :price or (b.price = :price and b.id > :id) order by b.price asc, b.id asc")
+    List<BookView> findViewPageByPriceAfter(@Param("price") BigDecimal price, @Param("id") Long id, Limit limit);
+
+    @Query(VIEW + "where b.id in :ids order by b.id asc")
+    List<BookView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Prefix match at the start of the title or of a later space-separated word, weighted by stock
+    @Query("select new com.example.bookstore.dto.Suggestion('title', b.id, b.title, cast(b.quantity as long)) "
+            + "from Book b where lower(b.title) like :start or lower(b.title) like :word "
+            + "order by b.quantity desc, b.title asc, b.id asc")
+    List<Suggestion> suggest(@Param("start") String start, @Param("word") String word, Limit limit);
+
+    @Query("select b.title from Book b where b.id = :id")
+    Optional<String> findTitleById(@Param("id") Long id);
+
+    @Query("select b.id from Book b where b.author.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+
+    @Query("select b.id from Book b where b.genre.id = :genreId")
+    List<Long> findIdsByGenreId(@Param("genreId") Long genreId);
+
+    @Query("select b.price from Book b where b.id = :id")
+    Optional<BigDecimal> findPriceById(@Param("id") Long id);
+
+    // Check and decrement in one statement: concurrent buyers serialize on the row lock, never oversell
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Book b set b.quantity = b.quantity - :quantity, b.version = b.version + 1 "
+            + "where b.id = :id and b.quantity >= :quantity")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Query("select b.quantity from Book b where b.id = :id")
+    Optional<Integer> findQuantityById(@Param("id") Long id);
+
+    // Set-based deletes; book_trigrams rows go with them through their ON DELETE CASCADE key
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Book b where b.author.id = :authorId")
+    int deleteByAuthorId(@Param("authorId") Long authorId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Book b where b.genre.id = :genreId")
+    int deleteByGenreId(@Param("genreId") Long genreId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from Book b join fetch b.author join fetch b.genre order by b.id")
+    Stream<Book> streamAll();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.bookstore.search.IndexedBook(b.id, b.title, b.price, b.author.id, b.genre.id) "
+            + "from Book b")
+    Stream<IndexedBook> streamIndexedBooks();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.bookstore.search.FilterableBook(b.id, b.author.id, b.genre.id, b.quantity, b.price) "
+            + "from Book b")
+    Stream<FilterableBook> streamFilterableBooks();
+
+    @Query("select new com.example.bookstore.search.FilterableBook(b.id, b.author.id, b.genre.id, b.quantity, b.price) "
+            + "from Book b where b.id = :id")
+    Optional<FilterableBook> findFilterableById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.bookstore.search.PricedBook(b.id, b.price) from Book b order by b.price, b.id")
+    Stream<PricedBook> streamPricedBooks();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.bookstore.search.SuggestibleBook(b.id, b.title, b.quantity, b.author.id, b.genre.id) "
+            + "from Book b")
+    Stream<SuggestibleBook> streamSuggestibleBooks();
 }
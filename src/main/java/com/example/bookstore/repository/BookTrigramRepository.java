@@ -0,0 +1,26 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.domain.BookTrigram;
+import com.example.bookstore.search.IndexedBook;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookTrigramRepository extends JpaRepository<BookTrigram, BookTrigram.Key> {
+
+    @Modifying
+    @Query("delete from BookTrigram t where t.bookId = :bookId")
+    int deleteByBookId(@Param("bookId") Long bookId);
+
+    @Query("select new com.example.bookstore.search.IndexedBook(b.id, b.title, b.price, b.author.id, "
+            + "b.genre.id) "
+            + "from Book b where b.id > :after "
+            + "and not exists (select 1 from BookTrigram t where t.bookId = b.id) order by b.id")
+    List<IndexedBook> findBooksWithoutTrigrams(@Param("after") Long after, Limit limit);
+}
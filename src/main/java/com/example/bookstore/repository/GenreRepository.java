@@ -1,12 +1,36 @@
 package com.example.bookstore.repository;
 
 import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.Suggestion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface GenreRepository extends JpaRepository<Genre, Long> {
     Optional<Genre> findByNameIgnoreCase(String name);
-}
\ No newline at end of file
+
+    List<Genre> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select g.id from Genre g where g.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Prefix match at the start of the name or of a later space-separated word, weighted by number of books
+    @Query("select new com.example.bookstore.dto.Suggestion('genre', g.id, g.name, count(b)) "
+            + "from Genre g left join g.books b where lower(g.name) like :start or lower(g.name) like :word "
+            + "group by g.id, g.name order by count(b) desc, g.name asc, g.id asc")
+    List<Suggestion> suggest(@Param("start") String start, @Param("word") String word, Limit limit);
+
+    // Deletes the row without loading the entity, so the books collection is never initialized
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Genre g where g.id = :id")
+    int deleteRowById(@Param("id") Long id);
+}
@@ -0,0 +1,289 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.service.BookFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Roaring bitmaps of book ids per genre, per author and for books in stock. Catalog filters are answered by OR-ing
+ * the bitmaps of the requested genres and of the requested authors and AND-ing the results, without touching the
+ * database. Book ids must fit in an int; a larger id disables the index and filters fall back to SQL.
+ */
+@Slf4j
+@Component
+public class BookBitmapIndex {
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private static final long FIRST_WINDOW = 1 << 16;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, RoaringBitmap> byGenre = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byAuthor = new HashMap<>();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private volatile boolean ready;
+
+    public BookBitmapIndex(BookRepository bookRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bookstore.filter.bitmaps.enabled:true}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            // Writes test ready only once they hold the write lock: one arriving now blocks until the bitmaps are built
+            ready = false;
+            byGenre.clear();
+            byAuthor.clear();
+            inStock.clear();
+            all.clear();
+            ready = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                try (Stream<FilterableBook> stream = bookRepository.streamFilterableBooks()) {
+                    return stream.allMatch(this::put);
+                }
+            }));
+            if (ready) {
+                runOptimize();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Filter bitmaps built for {} books in {} ms, {} KB", all.getCardinality(),
+                (System.nanoTime() - start) / 1_000_000, sizeInBytes() / 1024);
+    }
+
+    public boolean isActive() {
+        return enabled && ready;
+    }
+
+    // Up to limit ids after the cursor, ascending; combines the bitmaps one id window at a time, growing the window
+    // while the page is not full, so a dense filter never intersects the whole catalog for a page
+    public List<Long> page(BookFilter filter, long after, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            long from = Math.max(after + 1, 0);
+            long end = end();
+            for (long window = FIRST_WINDOW; ids.size() < limit && from < end; window *= 2) {
+                long to = Math.min(from + window, end);
+                PeekableIntIterator iterator = matching(filter, from, to).getIntIterator();
+                while (iterator.hasNext() && ids.size() < limit) {
+                    ids.add(Integer.toUnsignedLong(iterator.next()));
+                }
+                from = to;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    public void indexBook(Book book) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            ready = put(new FilterableBook(book.getId(), book.getAuthor().getId(), book.getGenre().getId(),
+                    book.getQuantity(), book.getPrice()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A book changing author or genre leaves the bitmaps of the previous ones
+    public void reindexBook(Book book, Long previousAuthorId, Long previousGenreId) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            remove(book.getId(), previousAuthorId, previousGenreId);
+            ready = put(new FilterableBook(book.getId(), book.getAuthor().getId(), book.getGenre().getId(),
+                    book.getQuantity(), book.getPrice()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(FilterableBook book) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            remove(book.id(), book.authorId(), book.genreId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(Long id, int quantity) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            if (quantity > 0) {
+                inStock.add(id.intValue());
+            } else {
+                inStock.remove(id.intValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Authors cascade to their books, so those leave every bitmap
+    public void removeAuthor(Long id) {
+        removeGroup(byAuthor, byGenre, id);
+    }
+
+    public void removeGenre(Long id) {
+        removeGroup(byGenre, byAuthor, id);
+    }
+
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = inStock.getLongSizeInBytes() + all.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : byGenre.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byAuthor.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock
+    private long end() {
+        return all.isEmpty() ? 0 : Integer.toUnsignedLong(all.last()) + 1;
+    }
+
+    // Books in [from, to) matching the filter: OR within the genres and within the authors, AND across them
+    private RoaringBitmap matching(BookFilter filter, long from, long to) {
+        List<RoaringBitmap> terms = new ArrayList<>(3);
+        if (!filter.genreIds().isEmpty()) {
+            terms.add(RoaringBitmap.or(members(byGenre, filter.genreIds()).iterator(), from, to));
+        }
+        if (!filter.authorIds().isEmpty()) {
+            terms.add(RoaringBitmap.or(members(byAuthor, filter.authorIds()).iterator(), from, to));
+        }
+        if (filter.inStock()) {
+            terms.add(inStock);
+        }
+        if (terms.isEmpty()) {
+            terms.add(all);
+        }
+        return RoaringBitmap.and(terms.iterator(), from, to);
+    }
+
+    private static List<RoaringBitmap> members(Map<Long, RoaringBitmap> groups, Collection<Long> ids) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RoaringBitmap bitmap = groups.get(id);
+            if (bitmap != null) {
+                bitmaps.add(bitmap);
+            }
+        }
+        return bitmaps;
+    }
+
+    // Returns false, leaving the index inactive, for an id roaring bitmaps cannot hold
+    private boolean put(FilterableBook book) {
+        if (book.id() > Integer.MAX_VALUE) {
+            log.warn("Book id {} exceeds the bitmap range, catalog filters fall back to the database", book.id());
+            return false;
+        }
+        int id = book.id().intValue();
+        all.add(id);
+        byGenre.computeIfAbsent(book.genreId(), key -> new RoaringBitmap()).add(id);
+        byAuthor.computeIfAbsent(book.authorId(), key -> new RoaringBitmap()).add(id);
+        if (book.quantity() > 0) {
+            inStock.add(id);
+        } else {
+            inStock.remove(id);
+        }
+        return true;
+    }
+
+    private void remove(Long bookId, Long authorId, Long genreId) {
+        int id = bookId.intValue();
+        all.remove(id);
+        inStock.remove(id);
+        detach(byAuthor, authorId, id);
+        detach(byGenre, genreId, id);
+    }
+
+    private void removeGroup(Map<Long, RoaringBitmap> groups, Map<Long, RoaringBitmap> others, Long groupId) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            RoaringBitmap books = groups.remove(groupId);
+            if (books == null) {
+                return;
+            }
+            all.andNot(books);
+            inStock.andNot(books);
+            others.values().removeIf(bitmap -> {
+                bitmap.andNot(books);
+                return bitmap.isEmpty();
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void runOptimize() {
+        all.runOptimize();
+        inStock.runOptimize();
+        byGenre.values().forEach(RoaringBitmap::runOptimize);
+        byAuthor.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    private static void detach(Map<Long, RoaringBitmap> groups, Long groupId, int bookId) {
+        RoaringBitmap members = groups.get(groupId);
+        if (members != null) {
+            members.remove(bookId);
+            if (members.isEmpty()) {
+                groups.remove(groupId);
+            }
+        }
+    }
+}
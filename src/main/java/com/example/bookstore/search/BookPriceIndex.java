@@ -0,0 +1,272 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Book prices in cents and book ids in two parallel primitive arrays, sorted by price then id: the order of the
+ * {@code price, id} keyset. Range and cheapest-first queries are binary searches followed by one array copy, with no
+ * per-book allocation. Writes shift the arrays in place.
+ */
+@Slf4j
+@Component
+public class BookPriceIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] cents = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+    private volatile boolean ready;
+
+    public BookPriceIndex(BookRepository bookRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${bookstore.filter.prices.enabled:true}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public static long cents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            // Writes check ready under this lock, so one committed during the build waits and is applied after it
+            ready = false;
+            size = 0;
+            // Rows arrive in index order, so building is a sequence of appends
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<PricedBook> stream = bookRepository.streamPricedBooks()) {
+                    stream.forEach(book -> {
+                        ensureCapacity(size + 1);
+                        cents[size] = cents(book.price());
+                        ids[size] = book.id();
+                        size++;
+                    });
+                }
+            });
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Price index built for {} books in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isActive() {
+        return enabled && ready;
+    }
+
+    // Also true while the index is built: writes made then wait for the build and are applied to its result
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} ids of books priced within {@code [minCents, maxCents]}, cheapest first, strictly after the
+     * {@code (afterCents, afterId)} cursor. Pass {@code Long.MIN_VALUE} for both to start at the cheapest.
+     */
+    public long[] page(long minCents, long maxCents, long afterCents, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            int from = Math.max(after(minCents, Long.MIN_VALUE), after(afterCents, afterId));
+            int to = after(maxCents, Long.MAX_VALUE);
+            return from >= to ? new long[0] : Arrays.copyOfRange(ids, from, from + Math.min(limit, to - from));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void indexBook(Book book) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            insert(cents(book.getPrice()), book.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // One merge pass for a batch instead of a shift per book
+    public void indexBooks(List<Book> books) {
+        if (!enabled || books.isEmpty()) {
+            return;
+        }
+        long[] newCents = new long[books.size()];
+        long[] newIds = new long[books.size()];
+        Integer[] order = new Integer[books.size()];
+        for (int i = 0; i < books.size(); i++) {
+            newCents[i] = cents(books.get(i).getPrice());
+            newIds[i] = books.get(i).getId();
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compare(newCents[a], newIds[a], newCents[b], newIds[b]));
+
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            ensureCapacity(size + order.length);
+            // Merge from the back so existing entries move at most once
+            int existing = size - 1;
+            int added = order.length - 1;
+            for (int target = size + order.length - 1; added >= 0; target--) {
+                int next = order[added];
+                if (existing >= 0 && compare(cents[existing], ids[existing], newCents[next], newIds[next]) > 0) {
+                    cents[target] = cents[existing];
+                    ids[target] = ids[existing];
+                    existing--;
+                } else {
+                    cents[target] = newCents[next];
+                    ids[target] = newIds[next];
+                    added--;
+                }
+            }
+            size += order.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void reprice(Long id, BigDecimal previousPrice, BigDecimal price) {
+        if (cents(previousPrice) == cents(price)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            delete(cents(previousPrice), id);
+            insert(cents(price), id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(Long id, BigDecimal price) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            delete(cents(price), id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Books removed with their author or genre, without their prices: one compacting pass
+    public void removeBooks(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        long[] removed = bookIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (Arrays.binarySearch(removed, ids[i]) < 0) {
+                    cents[kept] = cents[i];
+                    ids[kept] = ids[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds a lock: position of the first entry ordered after (priceCents, id)
+    private int after(long priceCents, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(cents[mid], ids[mid], priceCents, id) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void insert(long priceCents, long id) {
+        ensureCapacity(size + 1);
+        int position = after(priceCents, id);
+        System.arraycopy(cents, position, cents, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        cents[position] = priceCents;
+        ids[position] = id;
+        size++;
+    }
+
+    private void delete(long priceCents, long id) {
+        int position = after(priceCents, id) - 1;
+        if (position < 0 || cents[position] != priceCents || ids[position] != id) {
+            return;
+        }
+        System.arraycopy(cents, position + 1, cents, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+            cents = Arrays.copyOf(cents, grown);
+            ids = Arrays.copyOf(ids, grown);
+        }
+    }
+
+    private static int compare(long leftCents, long leftId, long rightCents, long rightId) {
+        int byPrice = Long.compare(leftCents, rightCents);
+        return byPrice != 0 ? byPrice : Long.compare(leftId, rightId);
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over book titles, author names and genre names.
+ * Answers the same case-insensitive substring queries as the database search:
+ * posting lists narrow the candidates, and the exact substring check runs only on them.
+ */
+@Slf4j
+@Component
+public class BookSearchIndex {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final GenreRepository genreRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchMode mode;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TextField titles = new TextField();
+    private final TextField authors = new TextField();
+    private final TextField genres = new TextField();
+    private final Map<Long, IndexedBook> books = new HashMap<>();
+    private final Map<Long, Set<Long>> booksByAuthor = new HashMap<>();
+    private final Map<Long, Set<Long>> booksByGenre = new HashMap<>();
+    // Display names for facets; the text fields hold normalized names only
+    private final Map<Long, String> authorNames = new HashMap<>();
+    private final Map<Long, String> genreNames = new HashMap<>();
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookRepository bookRepository,
+                           AuthorRepository authorRepository,
+                           GenreRepository genreRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bookstore.search.mode:index}") SearchMode mode) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.genreRepository = genreRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.mode = mode;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (mode != SearchMode.INDEX) {
+            return;
+        }
+        long start = System.nanoTime();
+        // Writes check only the mode before taking the lock, so one made during the build waits and then applies
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            titles.clear();
+            authors.clear();
+            genres.clear();
+            books.clear();
+            booksByAuthor.clear();
+            booksByGenre.clear();
+            authorNames.clear();
+            genreNames.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                authorRepository.findAll().forEach(this::putAuthor);
+                genreRepository.findAll().forEach(this::putGenre);
+                try (Stream<IndexedBook> stream = bookRepository.streamIndexedBooks()) {
+                    stream.forEach(this::putBook);
+                }
+            });
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index built with {} books in {} ms", books.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isActive() {
+        return mode == SearchMode.INDEX && ready;
+    }
+
+    public List<Long> search(String title, String author, String genre) {
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>(matching(title, author, genre));
+            ids.sort(null);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Counted over the matching ids in memory; no book is loaded or serialized
+    public FacetCounts facets(String title, String author, String genre, PriceBuckets priceBuckets) {
+        FacetCounts counts = new FacetCounts(priceBuckets);
+        lock.readLock().lock();
+        try {
+            for (Long id : matching(title, author, genre)) {
+                IndexedBook book = books.get(id);
+                counts.add(book.authorId(), authorNames.get(book.authorId()), book.genreId(),
+                        genreNames.get(book.genreId()), priceBuckets.indexOf(book.price()), 1);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    public void indexBook(Book book) {
+        if (mode != SearchMode.INDEX) {
+            return;
+        }
+        IndexedBook indexed = new IndexedBook(book.getId(), book.getTitle(), book.getPrice(),
+                book.getAuthor().getId(), book.getGenre().getId());
+        lock.writeLock().lock();
+        try {
+            putBook(indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(Long id) {
+        if (mode != SearchMode.INDEX) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            deleteBook(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexAuthor(Author author) {
+        if (mode != SearchMode.INDEX) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            putAuthor(author);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Authors cascade to their books, so those leave the index too
+    public void removeAuthor(Long id) {
+        if (mode != SearchMode.INDEX) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            authors.remove(id);
+            authorNames.remove(id);
+            new ArrayList<>(booksByAuthor.getOrDefault(id, Set.of())).forEach(this::deleteBook);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexGenre(Genre genre) {
+        if (mode != SearchMode.INDEX) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            putGenre(genre);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeGenre(Long id) {
+        if (mode != SearchMode.INDEX) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            genres.remove(id);
+            genreNames.remove(id);
+            new ArrayList<>(booksByGenre.getOrDefault(id, Set.of())).forEach(this::deleteBook);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock; may return the live key set of all books, which must not be modified
+    private Collection<Long> matching(String title, String author, String genre) {
+        Set<Long> result = null;
+        if (hasText(title)) {
+            result = titles.matching(title);
+        }
+        if (hasText(author)) {
+            result = intersect(result, booksOf(authors.matching(author), booksByAuthor));
+        }
+        if (hasText(genre)) {
+            result = intersect(result, booksOf(genres.matching(genre), booksByGenre));
+        }
+        return result == null ? books.keySet() : result;
+    }
+
+    private void putAuthor(Author author) {
+        authors.put(author.getId(), author.getName());
+        authorNames.put(author.getId(), author.getName());
+    }
+
+    private void putGenre(Genre genre) {
+        genres.put(genre.getId(), genre.getName());
+        genreNames.put(genre.getId(), genre.getName());
+    }
+
+    private void putBook(IndexedBook book) {
+        deleteBook(book.id());
+        books.put(book.id(), book);
+        titles.put(book.id(), book.title());
+        booksByAuthor.computeIfAbsent(book.authorId(), key -> new HashSet<>()).add(book.id());
+        booksByGenre.computeIfAbsent(book.genreId(), key -> new HashSet<>()).add(book.id());
+    }
+
+    private void deleteBook(Long id) {
+        IndexedBook old = books.remove(id);
+        if (old == null) {
+            return;
+        }
+        titles.remove(id);
+        detach(booksByAuthor, old.authorId(), id);
+        detach(booksByGenre, old.genreId(), id);
+    }
+
+    private static void detach(Map<Long, Set<Long>> groups, Long groupId, Long bookId) {
+        Set<Long> members = groups.get(groupId);
+        if (members != null && members.remove(bookId) && members.isEmpty()) {
+            groups.remove(groupId);
+        }
+    }
+
+    private static Set<Long> booksOf(Set<Long> groupIds, Map<Long, Set<Long>> groups) {
+        Set<Long> result = new HashSet<>();
+        for (Long groupId : groupIds) {
+            result.addAll(groups.getOrDefault(groupId, Set.of()));
+        }
+        return result;
+    }
+
+    private static Set<Long> intersect(Set<Long> left, Set<Long> right) {
+        if (left == null) {
+            return right;
+        }
+        Set<Long> smaller = left.size() <= right.size() ? left : right;
+        Set<Long> larger = smaller == left ? right : left;
+        Set<Long> result = new HashSet<>();
+        for (Long id : smaller) {
+            if (larger.contains(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static final class TextField {
+
+        private final Map<Long, String> texts = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+        // Vocabulary tokens by each of their trigrams, so query tokens find the tokens containing them without a scan
+        private final Map<Long, Set<String>> tokensByTrigram = new HashMap<>();
+
+        void put(Long id, String text) {
+            remove(id);
+            String normalized = Tokenizer.normalize(text);
+            texts.put(id, normalized);
+            for (String token : Tokenizer.tokens(normalized)) {
+                postings.computeIfAbsent(token, this::addToken).add(id);
+            }
+        }
+
+        void remove(Long id) {
+            String old = texts.remove(id);
+            if (old == null) {
+                return;
+            }
+            for (String token : Tokenizer.tokens(old)) {
+                Set<Long> ids = postings.get(token);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    postings.remove(token);
+                    removeToken(token);
+                }
+            }
+        }
+
+        void clear() {
+            texts.clear();
+            postings.clear();
+            tokensByTrigram.clear();
+        }
+
+        // Every letter/digit run of the needle must sit inside one token of a matching text,
+        // so the union of postings for tokens containing that run is a superset of the matches.
+        Set<Long> matching(String term) {
+            String needle = Tokenizer.normalize(term);
+            Set<Long> candidates = null;
+            for (String queryToken : Tokenizer.tokens(needle)) {
+                Set<Long> union = new HashSet<>();
+                for (String token : tokensContaining(queryToken)) {
+                    union.addAll(postings.get(token));
+                }
+                candidates = intersect(candidates, union);
+                if (candidates.isEmpty()) {
+                    return candidates;
+                }
+            }
+            Collection<Long> source = candidates == null ? texts.keySet() : candidates;
+            Set<Long> result = new HashSet<>();
+            for (Long id : source) {
+                if (texts.get(id).contains(needle)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        // Only the tokens holding the query token's rarest trigram are checked. Query tokens under three characters
+        // have no trigram and match a large share of the vocabulary anyway, so those still scan it.
+        private List<String> tokensContaining(String queryToken) {
+            Set<String> rarest = null;
+            for (long gram : Trigrams.of(queryToken)) {
+                Set<String> tokens = tokensByTrigram.get(gram);
+                if (tokens == null) {
+                    return List.of();
+                }
+                if (rarest == null || tokens.size() < rarest.size()) {
+                    rarest = tokens;
+                }
+            }
+            Collection<String> source = rarest == null ? postings.keySet() : rarest;
+            List<String> result = new ArrayList<>();
+            for (String token : source) {
+                if (token.contains(queryToken)) {
+                    result.add(token);
+                }
+            }
+            return result;
+        }
+
+        private Set<Long> addToken(String token) {
+            for (long gram : Trigrams.of(token)) {
+                tokensByTrigram.computeIfAbsent(gram, key -> new HashSet<>()).add(token);
+            }
+            return new HashSet<>();
+        }
+
+        private void removeToken(String token) {
+            for (long gram : Trigrams.of(token)) {
+                Set<String> tokens = tokensByTrigram.get(gram);
+                if (tokens != null && tokens.remove(token) && tokens.isEmpty()) {
+                    tokensByTrigram.remove(gram);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.BookTrigram;
+import com.example.bookstore.repository.BookTrigramRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trigram side table for title substring search in the database.
+ * Every trigram of a search term must belong to a candidate book,
+ * so the exact LIKE check only runs on books that pass the trigram join.
+ */
+@Slf4j
+@Component
+public class BookTrigramIndex {
+
+    static final int BACKFILL_CHUNK_SIZE = 500;
+
+    // Every posting list joined costs a range scan, and a few trigrams already narrow well
+    static final int MAX_QUERY_TRIGRAMS = 4;
+
+    private final BookTrigramRepository trigramRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchMode mode;
+
+    public BookTrigramIndex(BookTrigramRepository trigramRepository,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${bookstore.search.mode:index}") SearchMode mode) {
+        this.trigramRepository = trigramRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode;
+    }
+
+    public boolean isActive() {
+        return mode == SearchMode.TRIGRAM;
+    }
+
+    // Books written while another search mode was configured have no trigrams yet
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!isActive()) {
+            return;
+        }
+        long indexed = 0;
+        long after = 0;
+        while (true) {
+            long cursor = after;
+            List<IndexedBook> chunk = transactionTemplate.execute(status -> {
+                List<IndexedBook> books = trigramRepository.findBooksWithoutTrigrams(cursor,
+                        Limit.of(BACKFILL_CHUNK_SIZE));
+                books.forEach(book -> insert(book.id(), book.title()));
+                entityManager.flush();
+                entityManager.clear();
+                return books;
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            indexed += chunk.size();
+            after = chunk.get(chunk.size() - 1).id();
+        }
+        log.info("Trigram backfill indexed {} books", indexed);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void index(Book book) {
+        if (!isActive()) {
+            return;
+        }
+        trigramRepository.deleteByBookId(book.getId());
+        insert(book.getId(), book.getTitle());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void indexNew(Book book) {
+        if (isActive()) {
+            insert(book.getId(), book.getTitle());
+        }
+    }
+
+    // Returns null when the term is too short to have any trigram
+    public Predicate narrow(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Book> root, String term) {
+        long[] grams = Trigrams.spread(Trigrams.of(term), MAX_QUERY_TRIGRAMS);
+        if (grams.length == 0) {
+            return null;
+        }
+        Subquery<Long> candidates = query.subquery(Long.class);
+        Root<BookTrigram> trigram = candidates.from(BookTrigram.class);
+        candidates.select(trigram.get("bookId"))
+                .where(trigram.get("trigram").in(Arrays.stream(grams).boxed().toList()))
+                .groupBy(trigram.get("bookId"))
+                .having(cb.equal(cb.count(trigram), (long) grams.length));
+        return root.get("id").in(candidates);
+    }
+
+    private void insert(Long bookId, String title) {
+        for (long gram : Trigrams.of(title)) {
+            entityManager.persist(new BookTrigram(gram, bookId));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.dto.FacetCount;
+import com.example.bookstore.dto.SearchFacets;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates facet counts from either the index (one book at a time) or grouped query rows.
+ */
+public class FacetCounts {
+
+    private final PriceBuckets priceBuckets;
+    private final Map<Long, Counter> genres = new HashMap<>();
+    private final Map<Long, Counter> authors = new HashMap<>();
+    private final long[] prices;
+    private long total;
+
+    public FacetCounts(PriceBuckets priceBuckets) {
+        this.priceBuckets = priceBuckets;
+        this.prices = new long[priceBuckets.count()];
+    }
+
+    public void add(Long authorId, String authorName, Long genreId, String genreName, int priceBucket, long count) {
+        authors.computeIfAbsent(authorId, id -> new Counter(authorName)).count += count;
+        genres.computeIfAbsent(genreId, id -> new Counter(genreName)).count += count;
+        prices[priceBucket] += count;
+        total += count;
+    }
+
+    // Largest counts first, ties by name; at most limit values per facet
+    public SearchFacets toFacets(int limit) {
+        return new SearchFacets(total, top(genres, limit), top(authors, limit), priceBuckets.ranges(prices));
+    }
+
+    private static List<FacetCount> top(Map<Long, Counter> counts, int limit) {
+        return counts.entrySet().stream()
+                .map(entry -> new FacetCount(entry.getKey(), entry.getValue().name, entry.getValue().count))
+                .sorted(Comparator.comparingLong(FacetCount::count).reversed()
+                        .thenComparing(FacetCount::name, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit)
+                .toList();
+    }
+
+    private static final class Counter {
+        private final String name;
+        private long count;
+
+        private Counter(String name) {
+            this.name = name;
+        }
+    }
+}
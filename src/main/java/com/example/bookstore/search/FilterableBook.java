@@ -0,0 +1,6 @@
+package com.example.bookstore.search;
+
+import java.math.BigDecimal;
+
+public record FilterableBook(Long id, Long authorId, Long genreId, int quantity, BigDecimal price) {
+}
@@ -0,0 +1,6 @@
+package com.example.bookstore.search;
+
+import java.math.BigDecimal;
+
+public record IndexedBook(Long id, String title, BigDecimal price, Long authorId, Long genreId) {
+}
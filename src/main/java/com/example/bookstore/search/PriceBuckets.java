@@ -0,0 +1,60 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.dto.PriceRangeCount;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Price ranges of the search facets, split at ascending bounds: {@code 10,25} gives [0, 10), [10, 25) and 25+.
+ */
+@Component
+public class PriceBuckets {
+
+    private final BigDecimal[] bounds;
+
+    public PriceBuckets(@Value("${bookstore.search.facets.price-buckets:10,25,50,100}") List<BigDecimal> bounds) {
+        this.bounds = bounds.toArray(BigDecimal[]::new);
+        for (int i = 1; i < this.bounds.length; i++) {
+            if (this.bounds[i].compareTo(this.bounds[i - 1]) <= 0) {
+                throw new IllegalArgumentException("Price bucket bounds must be ascending: " + bounds);
+            }
+        }
+    }
+
+    public int count() {
+        return bounds.length + 1;
+    }
+
+    public int indexOf(BigDecimal price) {
+        for (int i = 0; i < bounds.length; i++) {
+            if (price.compareTo(bounds[i]) < 0) {
+                return i;
+            }
+        }
+        return bounds.length;
+    }
+
+    // The same bucketing as indexOf, evaluated by the database
+    public Expression<Integer> expression(CriteriaBuilder cb, Expression<BigDecimal> price) {
+        CriteriaBuilder.Case<Integer> bucket = cb.selectCase();
+        for (int i = 0; i < bounds.length; i++) {
+            bucket = bucket.when(cb.lessThan(price, bounds[i]), i);
+        }
+        return bucket.otherwise(bounds.length);
+    }
+
+    public List<PriceRangeCount> ranges(long[] counts) {
+        List<PriceRangeCount> ranges = new ArrayList<>(count());
+        for (int i = 0; i < count(); i++) {
+            ranges.add(new PriceRangeCount(i == 0 ? BigDecimal.ZERO : bounds[i - 1],
+                    i < bounds.length ? bounds[i] : null, counts[i]));
+        }
+        return ranges;
+    }
+}
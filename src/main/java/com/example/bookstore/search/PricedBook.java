@@ -0,0 +1,6 @@
+package com.example.bookstore.search;
+
+import java.math.BigDecimal;
+
+public record PricedBook(Long id, BigDecimal price) {
+}
@@ -0,0 +1,33 @@
+package com.example.bookstore.search;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Distribution of search result sizes per search path, to spot queries that return most of the catalog.
+ */
+@Component
+public class SearchMetrics {
+
+    private final Map<SearchMode, DistributionSummary> results = new EnumMap<>(SearchMode.class);
+
+    public SearchMetrics(MeterRegistry meterRegistry) {
+        for (SearchMode mode : SearchMode.values()) {
+            results.put(mode, DistributionSummary.builder("bookstore.search.results")
+                    .description("Books returned per search")
+                    .baseUnit("books")
+                    .tag("mode", mode.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public void record(SearchMode mode, int resultCount) {
+        results.get(mode).record(resultCount);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bookstore.search;
+
+public enum SearchMode {
+    // Answer searches from the in-memory inverted index once it has been built
+    INDEX,
+    // Narrow title matches through the book_trigrams table before the LIKE check
+    TRIGRAM,
+    // Always run the Criteria LIKE query against the database
+    DATABASE
+}
@@ -0,0 +1,612 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.Suggestion;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Prefix trie over book titles, author names and genre names for typeahead. Every word of a text starts a key, so
+ * "hob" completes "The Hobbit". Keys sit in small buckets that split by character as they fill (a burst trie), so
+ * unique key tails do not cost a node per character. Each node caches the heaviest entries below it, so a lookup is
+ * one walk down the prefix; writes refresh the caches along the keys they touch. Titles weigh their stock, authors and genres their
+ * number of books.
+ */
+@Slf4j
+@Component
+public class SuggestIndex {
+
+    public static final String TITLE = "title";
+    public static final String AUTHOR = "author";
+    public static final String GENRE = "genre";
+
+    // Keys a bucket holds before it splits by the next character; below that, long key tails cost no nodes
+    private static final int BUCKET_SIZE = 32;
+
+    private static final Comparator<Entry> HEAVIEST_FIRST = SuggestIndex::compare;
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final GenreRepository genreRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int topK;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> titles = new HashMap<>();
+    private final Map<Long, Entry> authors = new HashMap<>();
+    private final Map<Long, Entry> genres = new HashMap<>();
+    private Node root = new Node();
+    // Candidate buffer for refreshes, which only run under the write lock
+    private final Entry[] scratch;
+    private volatile boolean ready;
+
+    public SuggestIndex(BookRepository bookRepository,
+                        AuthorRepository authorRepository,
+                        GenreRepository genreRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${bookstore.suggest.enabled:true}") boolean enabled,
+                        @Value("${bookstore.suggest.top-k:10}") int topK) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.genreRepository = genreRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.topK = topK;
+        this.scratch = new Entry[topK];
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            // A write waits here for the build rather than being dropped, since it checks ready under the lock
+            ready = false;
+            root = new Node();
+            titles.clear();
+            authors.clear();
+            genres.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                // Books first, so authors and genres go in once with their final counts
+                Map<Long, Long> booksByAuthor = new HashMap<>();
+                Map<Long, Long> booksByGenre = new HashMap<>();
+                try (Stream<SuggestibleBook> stream = bookRepository.streamSuggestibleBooks()) {
+                    stream.forEach(book -> {
+                        attach(titles, new Entry(TITLE, book.id(), book.title(), Math.max(book.quantity(), 0),
+                                book.authorId(), book.genreId()));
+                        booksByAuthor.merge(book.authorId(), 1L, Long::sum);
+                        booksByGenre.merge(book.genreId(), 1L, Long::sum);
+                    });
+                }
+                for (Author author : authorRepository.findAll()) {
+                    attach(authors, new Entry(AUTHOR, author.getId(), author.getName(),
+                            booksByAuthor.getOrDefault(author.getId(), 0L), null, null));
+                }
+                for (Genre genre : genreRepository.findAll()) {
+                    attach(genres, new Entry(GENRE, genre.getId(), genre.getName(),
+                            booksByGenre.getOrDefault(genre.getId(), 0L), null, null));
+                }
+            });
+            refreshAll(root);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggest index built with {} titles, {} authors and {} genres in {} ms", titles.size(),
+                authors.size(), genres.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isActive() {
+        return enabled && ready;
+    }
+
+    public int topK() {
+        return topK;
+    }
+
+    // Lower case words of the prefix separated by single spaces, the form keys are stored in
+    public static String normalizePrefix(String prefix) {
+        return String.join(" ", Tokenizer.words(Tokenizer.normalize(prefix)));
+    }
+
+    // Up to limit completions of the prefix, heaviest first; limit is capped at the cached top-K
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalizePrefix(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int size = Math.min(limit, topK);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = 0;
+            while (depth < key.length() && node.burst) {
+                node = node.child(key.charAt(depth++));
+                if (node == null) {
+                    return List.of();
+                }
+            }
+            if (depth == key.length()) {
+                List<Suggestion> suggestions = new ArrayList<>(Math.min(size, node.top.length));
+                for (int i = 0; i < size && i < node.top.length; i++) {
+                    suggestions.add(node.top[i].toSuggestion());
+                }
+                return suggestions;
+            }
+            // The prefix runs past a bucket: its keys are checked one by one
+            Set<Entry> matches = new HashSet<>();
+            for (int i = 0; i < node.size; i++) {
+                if (node.entries[i].key.startsWith(key, node.offsets[i])) {
+                    matches.add(node.entries[i]);
+                }
+            }
+            return matches.stream()
+                    .sorted(HEAVIEST_FIRST)
+                    .limit(size)
+                    .map(Entry::toSuggestion)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Creates and updates; a book moving to another author or genre moves one unit of weight along with it
+    public void indexBook(Book book) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            Entry old = titles.get(book.getId());
+            if (old != null) {
+                unlink(titles, old);
+                count(authors, old.authorId, -1);
+                count(genres, old.genreId, -1);
+            }
+            link(titles, new Entry(TITLE, book.getId(), book.getTitle(), Math.max(book.getQuantity(), 0),
+                    book.getAuthor().getId(), book.getGenre().getId()));
+            count(authors, book.getAuthor().getId(), 1);
+            count(genres, book.getGenre().getId(), 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(Long id, int quantity) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            Entry entry = titles.get(id);
+            if (entry != null) {
+                reweight(titles, entry, Math.max(quantity, 0));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            deleteBook(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexAuthor(Author author) {
+        rename(authors, AUTHOR, author.getId(), author.getName());
+    }
+
+    public void indexGenre(Genre genre) {
+        rename(genres, GENRE, genre.getId(), genre.getName());
+    }
+
+    // Authors and genres cascade to their books; finding those is a scan, deletes of either are rare
+    public void removeAuthor(Long id) {
+        removeGroup(authors, id, true);
+    }
+
+    public void removeGenre(Long id) {
+        removeGroup(genres, id, false);
+    }
+
+    private void rename(Map<Long, Entry> entries, String type, Long id, String name) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            Entry old = entries.get(id);
+            if (old != null && old.text.equals(name)) {
+                return;
+            }
+            if (old != null) {
+                unlink(entries, old);
+            }
+            link(entries, new Entry(type, id, name, old == null ? 0 : old.weight, null, null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeGroup(Map<Long, Entry> entries, Long id, boolean byAuthor) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                unlink(entries, entry);
+            }
+            List<Long> books = new ArrayList<>();
+            for (Entry title : titles.values()) {
+                if (id.equals(byAuthor ? title.authorId : title.genreId)) {
+                    books.add(title.id);
+                }
+            }
+            books.forEach(this::deleteBook);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void deleteBook(Long id) {
+        Entry old = titles.get(id);
+        if (old != null) {
+            unlink(titles, old);
+            count(authors, old.authorId, -1);
+            count(genres, old.genreId, -1);
+        }
+    }
+
+    private void count(Map<Long, Entry> entries, Long id, long delta) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            reweight(entries, entry, Math.max(entry.weight + delta, 0));
+        }
+    }
+
+    // The entry stays under the same keys; only the lists along them are re-sorted
+    private void reweight(Map<Long, Entry> entries, Entry entry, long weight) {
+        if (entry.weight == weight) {
+            return;
+        }
+        entry.weight = weight;
+        for (int offset : entry.starts()) {
+            refresh(descend(entry, offset, false), entry);
+        }
+    }
+
+    private void link(Map<Long, Entry> entries, Entry entry) {
+        for (Node[] path : attach(entries, entry)) {
+            refresh(path, null);
+        }
+    }
+
+    // Adds the entry under each of its keys without touching the cached lists; returns the paths it went down
+    private List<Node[]> attach(Map<Long, Entry> entries, Entry entry) {
+        entries.put(entry.id, entry);
+        List<Node[]> paths = new ArrayList<>();
+        for (int offset : entry.starts()) {
+            Node[] path = descend(entry, offset, true);
+            int depth = depth(path);
+            Node node = path[depth];
+            node.add(entry, offset);
+            if (!node.burst && node.size > BUCKET_SIZE) {
+                burst(node, depth);
+            }
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    private void unlink(Map<Long, Entry> entries, Entry entry) {
+        entries.remove(entry.id);
+        for (int offset : entry.starts()) {
+            Node[] path = descend(entry, offset, false);
+            int depth = depth(path);
+            if (!path[depth].remove(entry, offset)) {
+                continue;
+            }
+            for (; depth > 0 && path[depth].isEmpty(); depth--) {
+                path[depth - 1].removeChild(entry.key.charAt(offset + depth - 1));
+                path[depth] = null;
+            }
+            refresh(path, null);
+        }
+    }
+
+    // The nodes from the root down to the one holding the key at offset: the bucket it falls into, or the node it
+    // ends at. Without create, the path stops early where the key is not in the trie.
+    private Node[] descend(Entry entry, int offset, boolean create) {
+        int length = entry.key.length() - offset;
+        Node[] path = new Node[length + 1];
+        path[0] = root;
+        for (int depth = 0; depth < length && path[depth].burst; depth++) {
+            char label = entry.key.charAt(offset + depth);
+            path[depth + 1] = create ? path[depth].childOrCreate(label) : path[depth].child(label);
+            if (path[depth + 1] == null) {
+                break;
+            }
+        }
+        return path;
+    }
+
+    private static int depth(Node[] path) {
+        int depth = 0;
+        while (depth + 1 < path.length && path[depth + 1] != null) {
+            depth++;
+        }
+        return depth;
+    }
+
+    // Spreads a full bucket over children by the next character; keys ending at this depth stay in the node
+    private void burst(Node node, int depth) {
+        Entry[] entries = node.entries;
+        int[] offsets = node.offsets;
+        int size = node.size;
+        node.burst = true;
+        node.clear();
+        for (int i = 0; i < size; i++) {
+            Entry entry = entries[i];
+            int offset = offsets[i];
+            if (entry.key.length() - offset == depth) {
+                node.add(entry, offset);
+            } else {
+                node.childOrCreate(entry.key.charAt(offset + depth)).add(entry, offset);
+            }
+        }
+        for (Node child : node.children) {
+            if (child.size > BUCKET_SIZE) {
+                burst(child, depth + 1);
+            }
+            refresh(child);
+        }
+    }
+
+    // Recomputes the cached top entries bottom-up along a key's path, up to the first node whose list stays the same
+    // and does not hold the reweighted entry: the lists above it are built from it and cannot change either
+    private void refresh(Node[] path, Entry reweighted) {
+        for (int depth = path.length - 1; depth >= 0; depth--) {
+            Node node = path[depth];
+            if (node != null && !refresh(node) && !holds(node.top, reweighted)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean holds(Entry[] top, Entry entry) {
+        for (Entry listed : top) {
+            if (listed == entry) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Post-order pass after a bulk build
+    private void refreshAll(Node node) {
+        for (Node child : node.children) {
+            refreshAll(child);
+        }
+        refresh(node);
+    }
+
+    private boolean refresh(Node node) {
+        int size = 0;
+        for (int i = 0; i < node.size; i++) {
+            size = offer(size, node.entries[i]);
+        }
+        for (Node child : node.children) {
+            // Child lists are sorted: once one entry misses the cut, the rest of that list does too
+            for (Entry entry : child.top) {
+                if (size == topK && compare(entry, scratch[topK - 1]) >= 0) {
+                    break;
+                }
+                size = offer(size, entry);
+            }
+        }
+        if (Arrays.equals(scratch, 0, size, node.top, 0, node.top.length)) {
+            return false;
+        }
+        node.top = Arrays.copyOf(scratch, size);
+        return true;
+    }
+
+    // Keeps the first size slots of scratch sorted, at most topK; an entry reached through two keys is listed once
+    private int offer(int size, Entry entry) {
+        if (size == topK && compare(entry, scratch[topK - 1]) >= 0) {
+            return size;
+        }
+        for (int i = 0; i < size; i++) {
+            if (scratch[i] == entry) {
+                return size;
+            }
+        }
+        int position = size;
+        while (position > 0 && compare(scratch[position - 1], entry) > 0) {
+            position--;
+        }
+        int moved = Math.min(size, topK - 1) - position;
+        System.arraycopy(scratch, position, scratch, position + 1, moved);
+        scratch[position] = entry;
+        return Math.min(size + 1, topK);
+    }
+
+    private static int compare(Entry left, Entry right) {
+        if (left.weight != right.weight) {
+            return left.weight > right.weight ? -1 : 1;
+        }
+        int byText = left.text.compareTo(right.text);
+        if (byText != 0) {
+            return byText;
+        }
+        int byType = left.type.compareTo(right.type);
+        return byType != 0 ? byType : left.id.compareTo(right.id);
+    }
+
+    private static final class Entry {
+
+        private final String type;
+        private final Long id;
+        private final String text;
+        // Normalized words of the text separated by single spaces; each word start begins a key
+        private final String key;
+        private final Long authorId;
+        private final Long genreId;
+        private long weight;
+
+        Entry(String type, Long id, String text, long weight, Long authorId, Long genreId) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.key = normalizePrefix(text);
+            this.weight = weight;
+            this.authorId = authorId;
+            this.genreId = genreId;
+        }
+
+        int[] starts() {
+            if (key.isEmpty()) {
+                return new int[0];
+            }
+            int[] starts = new int[(int) key.chars().filter(c -> c == ' ').count() + 1];
+            for (int i = 0, word = 1; i < key.length(); i++) {
+                if (key.charAt(i) == ' ') {
+                    starts[word++] = i + 1;
+                }
+            }
+            return starts;
+        }
+
+        Suggestion toSuggestion() {
+            return new Suggestion(type, id, text, weight);
+        }
+    }
+
+    // A bucket holds every key below it until it outgrows BUCKET_SIZE; a burst node holds the keys ending at it and
+    // sends the rest to children by their next character
+    private static final class Node {
+
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+        private static final int[] NO_OFFSETS = new int[0];
+
+        private boolean burst;
+        // Sorted labels with their children at the same positions
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        // Keys as entries with the offset their key starts at
+        private Entry[] entries = NO_ENTRIES;
+        private int[] offsets = NO_OFFSETS;
+        private int size;
+        private Entry[] top = NO_ENTRIES;
+
+        boolean isEmpty() {
+            return size == 0 && labels.length == 0;
+        }
+
+        void add(Entry entry, int offset) {
+            if (size == entries.length) {
+                int capacity = Math.max(4, size * 2);
+                entries = Arrays.copyOf(entries, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+            }
+            entries[size] = entry;
+            offsets[size++] = offset;
+        }
+
+        boolean remove(Entry entry, int offset) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] == entry && offsets[i] == offset) {
+                    size--;
+                    entries[i] = entries[size];
+                    offsets[i] = offsets[size];
+                    entries[size] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void clear() {
+            entries = NO_ENTRIES;
+            offsets = NO_OFFSETS;
+            size = 0;
+        }
+
+        Node child(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            return position >= 0 ? children[position] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insertAt = -position - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+
+        void removeChild(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(labels, position + 1, newLabels, position, labels.length - position - 1);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.bookstore.search;
+
+public record SuggestibleBook(Long id, String title, int quantity, Long authorId, Long genreId) {
+}
@@ -0,0 +1,36 @@
+package com.example.bookstore.search;
+
+import java.util.Arrays;
+
+public final class Trigrams {
+
+    private Trigrams() {
+    }
+
+    // Distinct windows of three characters of the normalized text, packed into one long each
+    public static long[] of(String text) {
+        String normalized = Tokenizer.normalize(text);
+        if (normalized.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[normalized.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) normalized.charAt(i) << 32)
+                    | ((long) normalized.charAt(i + 1) << 16)
+                    | normalized.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    // Keeps at most max trigrams, spread evenly from the first to the last
+    public static long[] spread(long[] grams, int max) {
+        if (grams.length <= max) {
+            return grams;
+        }
+        long[] picked = new long[max];
+        for (int i = 0; i < max; i++) {
+            picked[i] = grams[(int) ((long) i * (grams.length - 1) / (max - 1))];
+        }
+        return picked;
+    }
+}
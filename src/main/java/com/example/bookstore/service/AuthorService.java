@@ -1,6 +1,7 @@
 package com.example.bookstore.service;
 
 import com.example.bookstore.domain.Author;
+import com.example.bookstore.dto.DeleteResult;
 
 import java.util.List;
 
@@ -9,9 +10,9 @@ public interface AuthorService {
 
     Author getById(Long id);
 
-    List<Author> getAll();
+    List<Author> getAll(Long after, Integer limit);
 
-    Author update(Long id, Author author);
+    Author update(Long id, Author author, Long expectedVersion);
 
-    void delete(Long id);
+    DeleteResult delete(Long id);
 }
\ No newline at end of file
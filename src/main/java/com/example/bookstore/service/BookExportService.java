@@ -0,0 +1,8 @@
+package com.example.bookstore.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+    long export(ExportFormat format, OutputStream out) throws IOException;
+}
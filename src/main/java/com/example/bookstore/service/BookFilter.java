@@ -0,0 +1,16 @@
+package com.example.bookstore.service;
+
+import java.util.Set;
+
+// Catalog filter: books of any of the genres, by any of the authors, optionally in stock only
+public record BookFilter(Set<Long> genreIds, Set<Long> authorIds, boolean inStock) {
+
+    public BookFilter {
+        genreIds = genreIds == null ? Set.of() : Set.copyOf(genreIds);
+        authorIds = authorIds == null ? Set.of() : Set.copyOf(authorIds);
+    }
+
+    public boolean isEmpty() {
+        return genreIds.isEmpty() && authorIds.isEmpty() && !inStock;
+    }
+}
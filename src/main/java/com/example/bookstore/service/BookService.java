@@ -1,19 +1,34 @@
 package com.example.bookstore.service;
 
 import com.example.bookstore.domain.Book;
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.dto.BulkCreateResult;
+import com.example.bookstore.dto.PurchaseResult;
+import com.example.bookstore.dto.SearchFacets;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface BookService {
     Book create(Book book);
 
+    BulkCreateResult createAll(List<Book> books);
+
     Book getById(Long id);
 
-    List<Book> getAll();
+    List<BookView> getAll(Long after, Integer limit, BookSort sort);
+
+    List<BookView> getByPrice(BigDecimal minPrice, BigDecimal maxPrice, Long after, Integer limit);
+
+    List<BookView> filter(BookFilter filter, Long after, Integer limit);
 
-    Book update(Long id, Book book);
+    Book update(Long id, Book book, Long expectedVersion);
 
     void delete(Long id);
 
-    List<Book> search(String title, String author, String genre);
+    PurchaseResult purchase(Long id, int quantity);
+
+    List<BookView> search(String title, String author, String genre);
+
+    SearchFacets facets(String title, String author, String genre);
 }
\ No newline at end of file
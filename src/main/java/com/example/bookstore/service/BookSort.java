@@ -0,0 +1,20 @@
+package com.example.bookstore.service;
+
+import java.util.Locale;
+
+public enum BookSort {
+    ID,
+    TITLE,
+    PRICE;
+
+    public static BookSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported sort: " + value);
+        }
+    }
+}
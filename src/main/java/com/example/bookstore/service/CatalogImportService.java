@@ -0,0 +1,15 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.dto.ImportJobStatus;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface CatalogImportService {
+    // Starts the import in the background and returns its status as it begins
+    ImportJobStatus importCsv(InputStream csv, String resumeJobId);
+
+    ImportJobStatus getJob(String id);
+
+    List<ImportJobStatus> getJobs();
+}
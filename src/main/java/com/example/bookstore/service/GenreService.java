@@ -1,6 +1,7 @@
 package com.example.bookstore.service;
 
 import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.DeleteResult;
 
 import java.util.List;
 
@@ -9,9 +10,9 @@ public interface GenreService {
 
     Genre getById(Long id);
 
-    List<Genre> getAll();
+    List<Genre> getAll(Long after, Integer limit);
 
-    Genre update(Long id, Genre genre);
+    Genre update(Long id, Genre genre, Long expectedVersion);
 
-    void delete(Long id);
+    DeleteResult delete(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.bookstore.service;
+
+public final class Pagination {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private Pagination() {
+    }
+
+    // Requested page sizes above MAX_LIMIT are capped rather than rejected
+    public static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public static long cursorOrStart(Long after) {
+        return after == null ? 0L : after;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.dto.Suggestion;
+
+import java.util.List;
+
+public interface SuggestService {
+    List<Suggestion> suggest(String prefix, Integer limit);
+}
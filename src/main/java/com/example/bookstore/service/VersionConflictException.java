@@ -0,0 +1,8 @@
+package com.example.bookstore.service;
+
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
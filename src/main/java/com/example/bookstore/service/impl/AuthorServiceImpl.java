@@ -1,48 +1,111 @@
 package com.example.bookstore.service.impl;
 
+import com.example.bookstore.cache.CatalogVersions;
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.example.bookstore.cache.AuthorCache;
 import com.example.bookstore.domain.Author;
+import com.example.bookstore.dto.DeleteResult;
+import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.search.BookBitmapIndex;
+import com.example.bookstore.search.BookPriceIndex;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.SuggestIndex;
+import com.example.bookstore.service.AfterCommit;
 import com.example.bookstore.service.AuthorService;
+import com.example.bookstore.service.Pagination;
+import com.example.bookstore.service.VersionConflictException;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Timed(value = "bookstore.service", histogram = true)
 @RequiredArgsConstructor
 public class AuthorServiceImpl implements AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final BookSearchIndex searchIndex;
+    private final BookBitmapIndex bitmapIndex;
+    private final BookPriceIndex priceIndex;
+    private final SuggestIndex suggestIndex;
+    private final AuthorCache authorCache;
+    private final CatalogVersions catalogVersions;
 
     @Override
+    @Transactional
     public Author create(Author author) {
-        return authorRepository.save(author);
+        Author saved = authorRepository.save(author);
+        AfterCommit.run(() -> {
+            searchIndex.indexAuthor(saved);
+            suggestIndex.indexAuthor(saved);
+        });
+        catalogVersions.changed(Section.AUTHORS);
+        return saved;
     }
 
     @Override
     public Author getById(Long id) {
-        return authorRepository.findById(id)
+        // The cached instance is shared by every reader, so each caller gets its own copy
+        return authorCache.findById(id)
+                .map(AuthorServiceImpl::copyOf)
                 .orElseThrow(() -> new EntityNotFoundException("Author not found with id: " + id));
     }
 
+    private static Author copyOf(Author author) {
+        return Author.builder().id(author.getId()).name(author.getName()).version(author.getVersion()).build();
+    }
+
     @Override
-    public List<Author> getAll() {
-        return authorRepository.findAll();
+    public List<Author> getAll(Long after, Integer limit) {
+        return authorRepository.findByIdGreaterThanOrderByIdAsc(
+                Pagination.cursorOrStart(after), Limit.of(Pagination.clampLimit(limit)));
     }
 
     @Override
-    public Author update(Long id, Author author) {
-        Author existing = getById(id);
+    @Transactional
+    public Author update(Long id, Author author, Long expectedVersion) {
+        Author existing = authorRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Author not found with id: " + id));
+        if (expectedVersion != null && existing.getVersion() != expectedVersion) {
+            throw new VersionConflictException("Author " + id + " has been modified, current version is "
+                    + existing.getVersion());
+        }
         existing.setName(author.getName());
-        return authorRepository.save(existing);
+        Author saved = authorRepository.save(existing);
+        AfterCommit.run(() -> {
+            authorCache.invalidate(id);
+            searchIndex.indexAuthor(saved);
+            suggestIndex.indexAuthor(saved);
+        });
+        catalogVersions.changed(Section.AUTHORS, Section.BOOKS);
+        return saved;
     }
 
     @Override
-    public void delete(Long id) {
+    @Transactional
+    public DeleteResult delete(Long id) {
         if (!authorRepository.existsById(id)) {
             throw new EntityNotFoundException("Author not found with id: " + id);
         }
-        authorRepository.deleteById(id);
+        // The price index cannot find books by author, so collect their ids before they go
+        List<Long> bookIds = priceIndex.isEnabled() ? bookRepository.findIdsByAuthorId(id) : List.of();
+        int booksDeleted = bookRepository.deleteByAuthorId(id);
+        authorRepository.deleteRowById(id);
+        AfterCommit.run(() -> {
+            authorCache.invalidate(id);
+            searchIndex.removeAuthor(id);
+            bitmapIndex.removeAuthor(id);
+            priceIndex.removeBooks(bookIds);
+            suggestIndex.removeAuthor(id);
+        });
+        catalogVersions.changed(Section.AUTHORS, Section.BOOKS);
+        return new DeleteResult(id, booksDeleted);
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.service.BookExportService;
+import com.example.bookstore.service.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class BookExportServiceImpl implements BookExportService {
+
+    // Rows written between flushing the response and clearing the persistence context
+    static final int CHUNK_SIZE = 500;
+
+    private static final String CSV_HEADER = "id,title,price,quantity,author_id,author_name,genre_id,genre_name";
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            return switch (format) {
+                case NDJSON -> writeNdjson(books.iterator(), out);
+                case CSV -> writeCsv(books.iterator(), out);
+            };
+        }
+    }
+
+    // One generator for rows and separators; it reaches the response only when its buffer fills or a chunk ends
+    private long writeNdjson(Iterator<Book> books, OutputStream out) throws IOException {
+        long rows = 0;
+        ObjectWriter writer = objectMapper.writerFor(Book.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (books.hasNext()) {
+                writer.writeValue(generator, books.next());
+                generator.writeRaw('\n');
+                if (++rows % CHUNK_SIZE == 0) {
+                    endChunk(generator);
+                }
+            }
+        }
+        // Closing the generator flushes the last, partial chunk without closing the response
+        return rows;
+    }
+
+    private long writeCsv(Iterator<Book> books, OutputStream out) throws IOException {
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (books.hasNext()) {
+            Book book = books.next();
+            writer.write(String.valueOf(book.getId()));
+            writer.write(',');
+            writer.write(csv(book.getTitle()));
+            writer.write(',');
+            writer.write(book.getPrice().toPlainString());
+            writer.write(',');
+            writer.write(String.valueOf(book.getQuantity()));
+            writer.write(',');
+            writer.write(String.valueOf(book.getAuthor().getId()));
+            writer.write(',');
+            writer.write(csv(book.getAuthor().getName()));
+            writer.write(',');
+            writer.write(String.valueOf(book.getGenre().getId()));
+            writer.write(',');
+            writer.write(csv(book.getGenre().getName()));
+            writer.write('\n');
+            if (++rows % CHUNK_SIZE == 0) {
+                endChunk(writer);
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private void endChunk(Flushable flushable) throws IOException {
+        flushable.flush();
+        entityManager.clear();
+    }
+
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
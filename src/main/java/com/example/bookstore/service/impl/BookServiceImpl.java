@@ -1,54 +1,303 @@
 package com.example.bookstore.service.impl;
 
+import com.example.bookstore.cache.AuthorCache;
+import com.example.bookstore.cache.CatalogVersions;
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.example.bookstore.cache.GenreCache;
+import com.example.bookstore.cache.SearchResultCache;
+import com.example.bookstore.cache.SearchResultCache.Query;
 import com.example.bookstore.domain.Author;
 import com.example.bookstore.domain.Book;
 import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.dto.BulkCreateResult;
+import com.example.bookstore.dto.BulkItemError;
+import com.example.bookstore.dto.PurchaseResult;
+import com.example.bookstore.dto.SearchFacets;
 import com.example.bookstore.repository.AuthorRepository;
 import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookBitmapIndex;
+import com.example.bookstore.search.BookPriceIndex;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.BookTrigramIndex;
+import com.example.bookstore.search.FacetCounts;
+import com.example.bookstore.search.FilterableBook;
+import com.example.bookstore.search.PriceBuckets;
+import com.example.bookstore.search.SearchMetrics;
+import com.example.bookstore.search.SearchMode;
+import com.example.bookstore.search.SuggestIndex;
+import com.example.bookstore.service.AfterCommit;
+import com.example.bookstore.service.BookFilter;
 import com.example.bookstore.service.BookService;
+import com.example.bookstore.service.BookSort;
+import com.example.bookstore.service.InsufficientStockException;
+import com.example.bookstore.service.Pagination;
+import com.example.bookstore.service.SingleFlight;
+import com.example.bookstore.service.VersionConflictException;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
+@Timed(value = "bookstore.service", histogram = true)
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
 
+    // Ids per "where b.id in :ids" statement when index results are loaded as views
+    static final int VIEW_BATCH_SIZE = 1_000;
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final GenreRepository genreRepository;
+    private final AuthorCache authorCache;
+    private final GenreCache genreCache;
     private final EntityManager entityManager;
+    private final Validator validator;
+    private final BookSearchIndex searchIndex;
+    private final BookTrigramIndex trigramIndex;
+    private final CatalogVersions catalogVersions;
+    private final SearchResultCache searchCache;
+    private final SearchMetrics searchMetrics;
+    private final PriceBuckets priceBuckets;
+    private final BookBitmapIndex bitmapIndex;
+    private final BookPriceIndex priceIndex;
+    private final SuggestIndex suggestIndex;
+
+    // Concurrent identical reads share one load. Keys carry the books version, which moves after a write commits, so
+    // a read that starts after a write never joins a load that may have seen the row before it.
+    private final SingleFlight<Versioned<Long>, Book> bookLoads = new SingleFlight<>();
+    private final SingleFlight<Versioned<Query>, List<BookView>> searchLoads = new SingleFlight<>();
+
+    @Value("${bookstore.bulk.chunk-size:500}")
+    private int bulkChunkSize = 500;
+
+    @Value("${bookstore.search.facets.limit:20}")
+    private int facetLimit = 20;
 
     @Override
+    @Transactional
     public Book create(Book book) {
         validateAuthorAndGenre(book);
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        trigramIndex.indexNew(saved);
+        AfterCommit.run(() -> {
+            searchIndex.indexBook(saved);
+            bitmapIndex.indexBook(saved);
+            priceIndex.indexBook(saved);
+            suggestIndex.indexBook(saved);
+        });
+        catalogVersions.changed(Section.BOOKS);
+        return saved;
     }
 
+    @Override
+    @Transactional
+    public BulkCreateResult createAll(List<Book> books) {
+        Set<Long> authorIds = existingIds(books, book -> book.getAuthor() == null ? null : book.getAuthor().getId(),
+                authorRepository::findExistingIds);
+        Set<Long> genreIds = existingIds(books, book -> book.getGenre() == null ? null : book.getGenre().getId(),
+                genreRepository::findExistingIds);
+
+        List<BulkItemError> errors = new ArrayList<>();
+        List<Long> createdIds = new ArrayList<>(books.size());
+        List<Book> chunk = new ArrayList<>(bulkChunkSize);
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            List<BulkItemError> itemErrors = validateBulkItem(i, book, authorIds, genreIds);
+            if (!itemErrors.isEmpty()) {
+                errors.addAll(itemErrors);
+                continue;
+            }
+            book.setId(null);
+            book.setAuthor(entityManager.getReference(Author.class, book.getAuthor().getId()));
+            book.setGenre(entityManager.getReference(Genre.class, book.getGenre().getId()));
+            entityManager.persist(book);
+            chunk.add(book);
+            if (chunk.size() == bulkChunkSize) {
+                flushChunk(chunk, createdIds);
+            }
+        }
+        flushChunk(chunk, createdIds);
+        if (!createdIds.isEmpty()) {
+            catalogVersions.changed(Section.BOOKS);
+        }
+        return new BulkCreateResult(books.size(), createdIds.size(), createdIds, errors);
+    }
+
+    // Coalesced callers share the loaded entity, so each one gets a copy of its own to change
     @Override
     public Book getById(Long id) {
-        return bookRepository.findById(id)
+        return copyOf(bookLoads.load(new Versioned<>(catalogVersions.current(Section.BOOKS), id),
+                () -> loadBook(id)));
+    }
+
+    private static Book copyOf(Book book) {
+        Author author = book.getAuthor();
+        Genre genre = book.getGenre();
+        return Book.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .price(book.getPrice())
+                .quantity(book.getQuantity())
+                .author(Author.builder().id(author.getId()).name(author.getName()).version(author.getVersion())
+                        .build())
+                .genre(Genre.builder().id(genre.getId()).name(genre.getName()).version(genre.getVersion()).build())
+                .version(book.getVersion())
+                .build();
+    }
+
+    private Book loadBook(Long id) {
+        return bookRepository.findWithAuthorAndGenreById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Book not found with id: " + id));
     }
 
     @Override
-    public List<Book> getAll() {
-        return bookRepository.findAll();
+    public List<BookView> getAll(Long after, Integer limit, BookSort sort) {
+        Limit pageSize = Limit.of(Pagination.clampLimit(limit));
+        return switch (sort) {
+            case ID -> bookRepository.findViewsByIdAfter(Pagination.cursorOrStart(after), pageSize);
+            case TITLE -> after == null
+                    ? bookRepository.findViewsOrderByTitle(pageSize)
+                    : bookRepository.findViewPageByTitleAfter(
+                            bookRepository.findTitleById(after).orElseThrow(() -> invalidCursor(after)),
+                            after, pageSize);
+            case PRICE -> priceIndex.isActive()
+                    ? getByPrice(null, null, after, limit)
+                    : after == null
+                    ? bookRepository.findViewsOrderByPrice(pageSize)
+                    : bookRepository.findViewPageByPriceAfter(
+                            bookRepository.findPriceById(after).orElseThrow(() -> invalidCursor(after)),
+                            after, pageSize);
+        };
     }
 
     @Override
-    public Book update(Long id, Book book) {
-        Book existing = getById(id);
+    public List<BookView> getByPrice(BigDecimal minPrice, BigDecimal maxPrice, Long after, Integer limit) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        int pageSize = Pagination.clampLimit(limit);
+        BigDecimal afterPrice = after == null
+                ? null
+                : bookRepository.findPriceById(after).orElseThrow(() -> invalidCursor(after));
+        if (!priceIndex.isActive()) {
+            return priceRangeDatabase(minPrice, maxPrice, afterPrice, after, pageSize);
+        }
+        long[] ids = priceIndex.page(
+                minPrice == null ? Long.MIN_VALUE : BookPriceIndex.cents(minPrice.setScale(2, RoundingMode.CEILING)),
+                maxPrice == null ? Long.MAX_VALUE : BookPriceIndex.cents(maxPrice.setScale(2, RoundingMode.FLOOR)),
+                afterPrice == null ? Long.MIN_VALUE : BookPriceIndex.cents(afterPrice),
+                after == null ? Long.MIN_VALUE : after,
+                pageSize);
+        return inIndexOrder(ids);
+    }
+
+    List<BookView> priceRangeDatabase(BigDecimal minPrice, BigDecimal maxPrice, BigDecimal afterPrice, Long after,
+                                      int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookView> query = cb.createQuery(BookView.class);
+        Root<Book> root = query.from(Book.class);
+        Join<Book, Author> authorJoin = root.join("author");
+        Join<Book, Genre> genreJoin = root.join("genre");
+        Expression<BigDecimal> price = root.get("price");
+
+        query.select(cb.construct(BookView.class,
+                root.get("id"), root.get("title"), price, root.get("quantity"),
+                authorJoin.get("id"), authorJoin.get("name"), genreJoin.get("id"), genreJoin.get("name")));
+        Predicate predicate = cb.conjunction();
+        if (minPrice != null) {
+            predicate = cb.and(predicate, cb.greaterThanOrEqualTo(price, minPrice));
+        }
+        if (maxPrice != null) {
+            predicate = cb.and(predicate, cb.lessThanOrEqualTo(price, maxPrice));
+        }
+        if (afterPrice != null) {
+            predicate = cb.and(predicate, cb.or(cb.greaterThan(price, afterPrice),
+                    cb.and(cb.equal(price, afterPrice), cb.greaterThan(root.get("id"), after))));
+        }
+        query.where(predicate);
+        query.orderBy(cb.asc(price), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<BookView> filter(BookFilter filter, Long after, Integer limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        long cursor = Pagination.cursorOrStart(after);
+        if (bitmapIndex.isActive()) {
+            List<Long> ids = bitmapIndex.page(filter, cursor, pageSize);
+            return findViews(ids);
+        }
+        return filterDatabase(filter, cursor, pageSize);
+    }
+
+    List<BookView> filterDatabase(BookFilter filter, long after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookView> query = cb.createQuery(BookView.class);
+        Root<Book> root = query.from(Book.class);
+        Join<Book, Author> authorJoin = root.join("author");
+        Join<Book, Genre> genreJoin = root.join("genre");
+
+        query.select(cb.construct(BookView.class,
+                root.get("id"), root.get("title"), root.get("price"), root.get("quantity"),
+                authorJoin.get("id"), authorJoin.get("name"), genreJoin.get("id"), genreJoin.get("name")));
+        Predicate predicate = cb.greaterThan(root.get("id"), after);
+        if (!filter.genreIds().isEmpty()) {
+            predicate = cb.and(predicate, genreJoin.get("id").in(filter.genreIds()));
+        }
+        if (!filter.authorIds().isEmpty()) {
+            predicate = cb.and(predicate, authorJoin.get("id").in(filter.authorIds()));
+        }
+        if (filter.inStock()) {
+            predicate = cb.and(predicate, cb.greaterThan(root.get("quantity"), 0));
+        }
+        query.where(predicate);
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional
+    public Book update(Long id, Book book, Long expectedVersion) {
+        // Loaded in this transaction, never shared: the instance is modified below
+        Book existing = loadBook(id);
+        if (expectedVersion != null && existing.getVersion() != expectedVersion) {
+            throw new VersionConflictException("Book " + id + " has been modified, current version is "
+                    + existing.getVersion());
+        }
         validateAuthorAndGenre(book);
+        Long previousAuthorId = existing.getAuthor().getId();
+        Long previousGenreId = existing.getGenre().getId();
+        BigDecimal previousPrice = existing.getPrice();
 
         existing.setTitle(book.getTitle());
         existing.setPrice(book.getPrice());
@@ -56,42 +305,248 @@ public class BookServiceImpl implements BookService {
         existing.setAuthor(book.getAuthor());
         existing.setGenre(book.getGenre());
 
-        return bookRepository.save(existing);
+        Book saved = bookRepository.save(existing);
+        trigramIndex.index(saved);
+        AfterCommit.run(() -> {
+            searchIndex.indexBook(saved);
+            bitmapIndex.reindexBook(saved, previousAuthorId, previousGenreId);
+            priceIndex.reprice(id, previousPrice, saved.getPrice());
+            suggestIndex.indexBook(saved);
+        });
+        catalogVersions.changed(Section.BOOKS);
+        return saved;
     }
 
     @Override
     public void delete(Long id) {
-        if (!bookRepository.existsById(id)) {
-            throw new EntityNotFoundException("Book not found with id: " + id);
-        }
+        FilterableBook book = bookRepository.findFilterableById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Book not found with id: " + id));
         bookRepository.deleteById(id);
+        AfterCommit.run(() -> {
+            searchIndex.removeBook(id);
+            bitmapIndex.removeBook(book);
+            priceIndex.removeBook(id, book.price());
+            suggestIndex.removeBook(id);
+        });
+        catalogVersions.changed(Section.BOOKS);
     }
 
     @Override
-    public List<Book> search(String title, String author, String genre) {
+    @Transactional
+    public PurchaseResult purchase(Long id, int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Purchase quantity must be positive");
+        }
+        if (bookRepository.decrementQuantity(id, quantity) == 0) {
+            int inStock = bookRepository.findQuantityById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Book not found with id: " + id));
+            throw new InsufficientStockException(
+                    "Insufficient stock for book " + id + ": requested " + quantity + ", available " + inStock);
+        }
+        // The row stays locked by our update until commit, so this read is exact
+        int remaining = bookRepository.findQuantityById(id).orElseThrow();
+        AfterCommit.run(() -> {
+            bitmapIndex.updateStock(id, remaining);
+            suggestIndex.updateStock(id, remaining);
+        });
+        catalogVersions.changed(Section.BOOKS);
+        return new PurchaseResult(id, quantity, remaining);
+    }
+
+    @Override
+    public List<BookView> search(String title, String author, String genre) {
+        return searchCache.get(Query.of(title, author, genre), query -> searchLoads.load(
+                new Versioned<>(catalogVersions.current(Section.BOOKS), query), () -> searchUncached(query)));
+    }
+
+    private List<BookView> searchUncached(Query query) {
+        String title = query.title();
+        String author = query.author();
+        String genre = query.genre();
+        List<BookView> results;
+        SearchMode mode;
+        if (searchIndex.isActive()) {
+            results = findViews(searchIndex.search(title, author, genre));
+            mode = SearchMode.INDEX;
+        } else {
+            results = searchDatabase(title, author, genre);
+            mode = trigramIndex.isActive() ? SearchMode.TRIGRAM : SearchMode.DATABASE;
+        }
+        searchMetrics.record(mode, results.size());
+        return results;
+    }
+
+    List<BookView> searchDatabase(String title, String author, String genre) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookView> query = cb.createQuery(BookView.class);
+        Root<Book> root = query.from(Book.class);
+        Join<Book, Author> authorJoin = root.join("author");
+        Join<Book, Genre> genreJoin = root.join("genre");
+
+        query.select(cb.construct(BookView.class,
+                root.get("id"), root.get("title"), root.get("price"), root.get("quantity"),
+                authorJoin.get("id"), authorJoin.get("name"), genreJoin.get("id"), genreJoin.get("name")));
+        query.where(searchPredicate(cb, query, root, authorJoin, genreJoin, title, author, genre));
+        query.orderBy(cb.asc(root.get("id")));
+
+        TypedQuery<BookView> typedQuery = entityManager.createQuery(query);
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public SearchFacets facets(String title, String author, String genre) {
+        FacetCounts counts = searchIndex.isActive()
+                ? searchIndex.facets(title, author, genre, priceBuckets)
+                : facetsDatabase(title, author, genre);
+        return counts.toFacets(facetLimit);
+    }
+
+    // One grouped query: a row per author, genre and price bucket combination among the matches
+    FacetCounts facetsDatabase(String title, String author, String genre) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
         Root<Book> root = query.from(Book.class);
+        Join<Book, Author> authorJoin = root.join("author");
+        Join<Book, Genre> genreJoin = root.join("genre");
+        Expression<Integer> bucket = priceBuckets.expression(cb, root.get("price"));
 
+        query.multiselect(authorJoin.get("id"), authorJoin.get("name"), genreJoin.get("id"), genreJoin.get("name"),
+                bucket, cb.count(root));
+        query.where(searchPredicate(cb, query, root, authorJoin, genreJoin, title, author, genre));
+        query.groupBy(authorJoin.get("id"), authorJoin.get("name"), genreJoin.get("id"), genreJoin.get("name"),
+                bucket);
+
+        FacetCounts counts = new FacetCounts(priceBuckets);
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.add(row.get(0, Long.class), row.get(1, String.class), row.get(2, Long.class),
+                    row.get(3, String.class), row.get(4, Integer.class), row.get(5, Long.class));
+        }
+        return counts;
+    }
+
+    private Predicate searchPredicate(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Book> root,
+                                      Join<Book, Author> authorJoin, Join<Book, Genre> genreJoin,
+                                      String title, String author, String genre) {
         Predicate predicate = cb.conjunction();
 
         if (title != null && !title.isBlank()) {
+            if (trigramIndex.isActive()) {
+                Predicate candidates = trigramIndex.narrow(cb, query, root, title);
+                if (candidates != null) {
+                    predicate = cb.and(predicate, candidates);
+                }
+            }
             predicate = cb.and(predicate,
                     cb.like(cb.lower(root.get("title")), "%" + title.toLowerCase() + "%"));
         }
         if (author != null && !author.isBlank()) {
             predicate = cb.and(predicate,
-                    cb.like(cb.lower(root.join("author").get("name")), "%" + author.toLowerCase() + "%"));
+                    cb.like(cb.lower(authorJoin.get("name")), "%" + author.toLowerCase() + "%"));
         }
         if (genre != null && !genre.isBlank()) {
             predicate = cb.and(predicate,
-                    cb.like(cb.lower(root.join("genre").get("name")), "%" + genre.toLowerCase() + "%"));
+                    cb.like(cb.lower(genreJoin.get("name")), "%" + genre.toLowerCase() + "%"));
         }
+        return predicate;
+    }
 
-        query.where(predicate);
+    private List<BulkItemError> validateBulkItem(int index, Book book, Set<Long> authorIds, Set<Long> genreIds) {
+        List<BulkItemError> errors = new ArrayList<>();
+        if (book == null) {
+            errors.add(new BulkItemError(index, null, "Book cannot be null"));
+            return errors;
+        }
+        for (ConstraintViolation<Book> violation : validator.validate(book)) {
+            errors.add(new BulkItemError(index, violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+        // An empty reference such as "author": {} passes bean validation but has no id to look up
+        if (book.getAuthor() != null && book.getAuthor().getId() == null) {
+            errors.add(new BulkItemError(index, "author", "Author id is missing"));
+        } else if (book.getAuthor() != null && !authorIds.contains(book.getAuthor().getId())) {
+            errors.add(new BulkItemError(index, "author",
+                    "Author not found with id: " + book.getAuthor().getId()));
+        }
+        if (book.getGenre() != null && book.getGenre().getId() == null) {
+            errors.add(new BulkItemError(index, "genre", "Genre id is missing"));
+        } else if (book.getGenre() != null && !genreIds.contains(book.getGenre().getId())) {
+            errors.add(new BulkItemError(index, "genre",
+                    "Genre not found with id: " + book.getGenre().getId()));
+        }
+        return errors;
+    }
 
-        TypedQuery<Book> typedQuery = entityManager.createQuery(query);
-        return typedQuery.getResultList();
+    private static Set<Long> existingIds(List<Book> books, Function<Book, Long> idOf,
+                                         Function<Collection<Long>, Set<Long>> lookup) {
+        Set<Long> ids = new HashSet<>();
+        for (Book book : books) {
+            Long id = book == null ? null : idOf.apply(book);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids.isEmpty() ? Set.of() : lookup.apply(ids);
+    }
+
+    private void flushChunk(List<Book> chunk, List<Long> createdIds) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        chunk.forEach(trigramIndex::indexNew);
+        entityManager.flush();
+        // The indexes only read ids and columns, which detached books keep after the clear below
+        List<Book> flushed = List.copyOf(chunk);
+        flushed.forEach(book -> createdIds.add(book.getId()));
+        AfterCommit.run(() -> {
+            for (Book book : flushed) {
+                searchIndex.indexBook(book);
+                bitmapIndex.indexBook(book);
+                suggestIndex.indexBook(book);
+            }
+            priceIndex.indexBooks(flushed);
+        });
+        entityManager.clear();
+        chunk.clear();
+    }
+
+    // One IN list per batch keeps each statement far below MySQL's 65,535 placeholders. Every batch comes back ordered
+    // by id, so sorted ids give results in id order.
+    private List<BookView> findViews(List<Long> ids) {
+        if (ids.size() <= VIEW_BATCH_SIZE) {
+            return ids.isEmpty() ? List.of() : bookRepository.findViewsByIdIn(ids);
+        }
+        List<BookView> views = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += VIEW_BATCH_SIZE) {
+            int to = Math.min(from + VIEW_BATCH_SIZE, ids.size());
+            views.addAll(bookRepository.findViewsByIdIn(ids.subList(from, to)));
+        }
+        return views;
+    }
+
+    // Views come back ordered by id; put them back in the order of the index page
+    private List<BookView> inIndexOrder(long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> page = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            page.add(id);
+        }
+        Map<Long, BookView> views = new HashMap<>();
+        for (BookView view : findViews(page)) {
+            views.put(view.id(), view);
+        }
+        List<BookView> ordered = new ArrayList<>(ids.length);
+        for (Long id : page) {
+            BookView view = views.get(id);
+            if (view != null) {
+                ordered.add(view);
+            }
+        }
+        return ordered;
+    }
+
+    private IllegalArgumentException invalidCursor(Long after) {
+        return new IllegalArgumentException("Invalid cursor, book not found with id: " + after);
     }
 
     private void validateAuthorAndGenre(Book book) {
@@ -102,12 +557,15 @@ public class BookServiceImpl implements BookService {
             throw new IllegalArgumentException("Book must have a valid genre ID");
         }
 
-        // Check if Author exists
-        authorRepository.findById(book.getAuthor().getId())
-                .orElseThrow(() -> new EntityNotFoundException("Author not found with id: " + book.getAuthor().getId()));
+        // Check if Author exists; the loaded copy carries the name and version into the response
+        book.setAuthor(authorCache.findById(book.getAuthor().getId())
+                .orElseThrow(() -> new EntityNotFoundException("Author not found with id: " + book.getAuthor().getId())));
 
         // Check if Genre exists
-        genreRepository.findById(book.getGenre().getId())
-                .orElseThrow(() -> new EntityNotFoundException("Genre not found with id: " + book.getGenre().getId()));
+        book.setGenre(genreCache.findById(book.getGenre().getId())
+                .orElseThrow(() -> new EntityNotFoundException("Genre not found with id: " + book.getGenre().getId())));
+    }
+
+    private record Versioned<K>(long version, K key) {
     }
-}
\ No newline at end of file
+}
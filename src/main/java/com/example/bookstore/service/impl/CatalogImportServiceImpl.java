@@ -0,0 +1,378 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.cache.CatalogVersions;
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.BulkCreateResult;
+import com.example.bookstore.dto.BulkItemError;
+import com.example.bookstore.dto.ImportJobStatus;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.SuggestIndex;
+import com.example.bookstore.service.AfterCommit;
+import com.example.bookstore.service.BookService;
+import com.example.bookstore.service.CatalogImportService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    static final int MAX_RETAINED_JOBS = 100;
+    private static final List<String> COLUMNS = List.of("title", "price", "quantity", "author", "genre");
+
+    private final BookService bookService;
+    private final AuthorRepository authorRepository;
+    private final GenreRepository genreRepository;
+    private final BookSearchIndex searchIndex;
+    private final SuggestIndex suggestIndex;
+    private final CatalogVersions catalogVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int dictionarySize;
+    private final ExecutorService executor;
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            return size() > MAX_RETAINED_JOBS;
+        }
+    };
+
+    public CatalogImportServiceImpl(BookService bookService,
+                                    AuthorRepository authorRepository,
+                                    GenreRepository genreRepository,
+                                    BookSearchIndex searchIndex,
+                                    SuggestIndex suggestIndex,
+                                    CatalogVersions catalogVersions,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${bookstore.import.chunk-size:500}") int chunkSize,
+                                    @Value("${bookstore.import.dictionary-size:10000}") int dictionarySize,
+                                    @Value("${bookstore.import.threads:2}") int threads) {
+        this.bookService = bookService;
+        this.authorRepository = authorRepository;
+        this.genreRepository = genreRepository;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.catalogVersions = catalogVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.dictionarySize = dictionarySize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // The upload is spooled to a temporary file, so the request returns while the import runs in the background
+    @Override
+    public ImportJobStatus importCsv(InputStream csv, String resumeJobId) {
+        Path file = spool(csv);
+        try {
+            checkHeader(file);
+            ImportJob job = resumeJobId == null ? register(new ImportJob(UUID.randomUUID().toString())) : find(resumeJobId);
+            job.start();
+            try {
+                executor.execute(() -> run(job, file));
+            } catch (RejectedExecutionException ex) {
+                job.fail("Import executor is shut down");
+                throw ex;
+            }
+            return job.status();
+        } catch (RuntimeException ex) {
+            delete(file);
+            throw ex;
+        }
+    }
+
+    private void run(ImportJob job, Path file) {
+        long skip = job.getCommittedRows();
+        Chunk chunk = new Chunk(new NameDictionary(dictionarySize), new NameDictionary(dictionarySize));
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            CsvReader csvReader = new CsvReader(reader);
+            int[] columns = columns(csvReader.next());
+            long row = 0;
+            List<String> record;
+            while ((record = csvReader.next()) != null) {
+                row++;
+                if (row <= skip) {
+                    continue;
+                }
+                job.rowRead();
+                chunk.add(row, record, columns);
+                if (chunk.rows == chunkSize) {
+                    commit(chunk, row, job);
+                }
+            }
+            commit(chunk, row, job);
+            job.complete();
+        } catch (IllegalArgumentException ex) {
+            // Malformed CSV is the client's problem; the job stays resumable from its last commit
+            job.fail(ex.getMessage());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Import {} failed after {} committed rows", job.getId(), job.getCommittedRows(), ex);
+            job.fail(ex.getMessage());
+        } finally {
+            delete(file);
+        }
+        ImportJobStatus status = job.status();
+        log.info("Import {} {}: {} rows, {} books created, {} errors", job.getId(), status.state(),
+                status.rowsRead(), status.booksCreated(), status.errorCount());
+    }
+
+    @Override
+    public ImportJobStatus getJob(String id) {
+        return find(id).status();
+    }
+
+    @Override
+    public List<ImportJobStatus> getJobs() {
+        synchronized (jobs) {
+            List<ImportJobStatus> statuses = new ArrayList<>(jobs.size());
+            jobs.values().forEach(job -> statuses.add(0, job.status()));
+            return statuses;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Path spool(InputStream csv) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("catalog-import-", ".csv");
+            Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException ex) {
+            if (file != null) {
+                delete(file);
+            }
+            throw new UncheckedIOException("Could not receive the CSV upload", ex);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete import file {}", file, ex);
+        }
+    }
+
+    // A missing column is reported to the request; errors further into the file fail the job
+    private void checkHeader(Path file) {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            columns(new CsvReader(reader).next());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private ImportJob register(ImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        return job;
+    }
+
+    private ImportJob find(String id) {
+        synchronized (jobs) {
+            ImportJob job = jobs.get(id);
+            if (job == null) {
+                throw new EntityNotFoundException("Import job not found with id: " + id);
+            }
+            return job;
+        }
+    }
+
+    private int[] columns(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        int[] columns = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            columns[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                if (COLUMNS.get(i).equals(header.get(j).trim().toLowerCase(Locale.ROOT))) {
+                    columns[i] = j;
+                }
+            }
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("CSV header must contain columns " + COLUMNS);
+            }
+        }
+        return columns;
+    }
+
+    private void commit(Chunk chunk, long lastRow, ImportJob job) {
+        List<Author> newAuthors = new ArrayList<>();
+        List<Genre> newGenres = new ArrayList<>();
+        List<BulkItemError> errors = new ArrayList<>(chunk.errors);
+        BulkCreateResult result = transactionTemplate.execute(status -> {
+            List<Book> books = new ArrayList<>(chunk.parsed.size());
+            for (ParsedRow parsed : chunk.parsed) {
+                Long authorId = chunk.authors.resolve(parsed.author(), name -> authorRepository.findByNameIgnoreCase(name)
+                        .orElseGet(() -> created(newAuthors, authorRepository.save(Author.builder().name(name).build())))
+                        .getId());
+                Long genreId = chunk.genres.resolve(parsed.genre(), name -> genreRepository.findByNameIgnoreCase(name)
+                        .orElseGet(() -> created(newGenres, genreRepository.save(Genre.builder().name(name).build())))
+                        .getId());
+                books.add(Book.builder()
+                        .title(parsed.title())
+                        .price(parsed.price())
+                        .quantity(parsed.quantity())
+                        .author(Author.builder().id(authorId).build())
+                        .genre(Genre.builder().id(genreId).build())
+                        .build());
+            }
+            // Ahead of the books, so each of them adds to its new author's and genre's weight
+            AfterCommit.run(() -> {
+                newAuthors.forEach(suggestIndex::indexAuthor);
+                newGenres.forEach(suggestIndex::indexGenre);
+            });
+            return books.isEmpty() ? null : bookService.createAll(books);
+        });
+        int created = 0;
+        if (result != null) {
+            created = result.created();
+            for (BulkItemError error : result.errors()) {
+                errors.add(new BulkItemError(chunk.parsed.get(Math.toIntExact(error.index())).row(), error.field(),
+                        error.message()));
+            }
+        }
+        newAuthors.forEach(searchIndex::indexAuthor);
+        newGenres.forEach(searchIndex::indexGenre);
+        if (!newAuthors.isEmpty()) {
+            catalogVersions.changed(Section.AUTHORS);
+        }
+        if (!newGenres.isEmpty()) {
+            catalogVersions.changed(Section.GENRES);
+        }
+        job.committed(lastRow, created, newAuthors.size(), newGenres.size(), errors);
+        chunk.clear();
+        log.info("Import {}: {} rows committed, {} rows/s", job.getId(), lastRow, Math.round(job.rowsPerSecond()));
+    }
+
+    private static <T> T created(List<T> created, T entity) {
+        created.add(entity);
+        return entity;
+    }
+
+    private record ParsedRow(long row, String title, BigDecimal price, int quantity, String author, String genre) {
+    }
+
+    private static final class Chunk {
+
+        private final NameDictionary authors;
+        private final NameDictionary genres;
+        private final List<ParsedRow> parsed = new ArrayList<>();
+        private final List<BulkItemError> errors = new ArrayList<>();
+        private int rows;
+
+        Chunk(NameDictionary authors, NameDictionary genres) {
+            this.authors = authors;
+            this.genres = genres;
+        }
+
+        void add(long row, List<String> record, int[] columns) {
+            rows++;
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                return;
+            }
+            String title = field(record, columns[0]);
+            String author = field(record, columns[3]);
+            String genre = field(record, columns[4]);
+            BigDecimal price;
+            int quantity;
+            try {
+                price = new BigDecimal(field(record, columns[1]));
+            } catch (NumberFormatException ex) {
+                errors.add(new BulkItemError(row, "price", "Price must be a number"));
+                return;
+            }
+            try {
+                quantity = Integer.parseInt(field(record, columns[2]));
+            } catch (NumberFormatException ex) {
+                errors.add(new BulkItemError(row, "quantity", "Quantity must be a whole number"));
+                return;
+            }
+            if (author.isEmpty()) {
+                errors.add(new BulkItemError(row, "author", "Author name is required"));
+                return;
+            }
+            if (genre.isEmpty()) {
+                errors.add(new BulkItemError(row, "genre", "Genre name is required"));
+                return;
+            }
+            parsed.add(new ParsedRow(row, title, price, quantity, author, genre));
+        }
+
+        void clear() {
+            parsed.clear();
+            errors.clear();
+            rows = 0;
+        }
+
+        private static String field(List<String> record, int column) {
+            return column < record.size() ? record.get(column).trim() : "";
+        }
+    }
+
+    // Bounded name -> id lookup, so supplier files with millions of distinct names do not grow the heap
+    private static final class NameDictionary {
+
+        private final Map<String, Long> ids;
+
+        NameDictionary(int maxSize) {
+            this.ids = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        Long resolve(String name, Function<String, Long> loader) {
+            String key = name.toLowerCase(Locale.ROOT);
+            Long id = ids.get(key);
+            if (id == null) {
+                id = loader.apply(name);
+                ids.put(key, id);
+            }
+            return id;
+        }
+    }
+}
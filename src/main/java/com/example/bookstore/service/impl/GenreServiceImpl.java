@@ -1,48 +1,111 @@
 package com.example.bookstore.service.impl;
 
+import com.example.bookstore.cache.CatalogVersions;
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.example.bookstore.cache.GenreCache;
 import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.DeleteResult;
+import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookBitmapIndex;
+import com.example.bookstore.search.BookPriceIndex;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.SuggestIndex;
+import com.example.bookstore.service.AfterCommit;
 import com.example.bookstore.service.GenreService;
+import com.example.bookstore.service.Pagination;
+import com.example.bookstore.service.VersionConflictException;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Timed(value = "bookstore.service", histogram = true)
 @RequiredArgsConstructor
 public class GenreServiceImpl implements GenreService {
 
     private final GenreRepository genreRepository;
+    private final BookRepository bookRepository;
+    private final BookSearchIndex searchIndex;
+    private final BookBitmapIndex bitmapIndex;
+    private final BookPriceIndex priceIndex;
+    private final SuggestIndex suggestIndex;
+    private final GenreCache genreCache;
+    private final CatalogVersions catalogVersions;
 
     @Override
+    @Transactional
     public Genre create(Genre genre) {
-        return genreRepository.save(genre);
+        Genre saved = genreRepository.save(genre);
+        AfterCommit.run(() -> {
+            searchIndex.indexGenre(saved);
+            suggestIndex.indexGenre(saved);
+        });
+        catalogVersions.changed(Section.GENRES);
+        return saved;
     }
 
     @Override
     public Genre getById(Long id) {
-        return genreRepository.findById(id)
+        // The cached instance is shared by every reader, so each caller gets its own copy
+        return genreCache.findById(id)
+                .map(GenreServiceImpl::copyOf)
                 .orElseThrow(() -> new EntityNotFoundException("Genre not found with id: " + id));
     }
 
+    private static Genre copyOf(Genre genre) {
+        return Genre.builder().id(genre.getId()).name(genre.getName()).version(genre.getVersion()).build();
+    }
+
     @Override
-    public List<Genre> getAll() {
-        return genreRepository.findAll();
+    public List<Genre> getAll(Long after, Integer limit) {
+        return genreRepository.findByIdGreaterThanOrderByIdAsc(
+                Pagination.cursorOrStart(after), Limit.of(Pagination.clampLimit(limit)));
     }
 
     @Override
-    public Genre update(Long id, Genre genre) {
-        Genre existing = getById(id);
+    @Transactional
+    public Genre update(Long id, Genre genre, Long expectedVersion) {
+        Genre existing = genreRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Genre not found with id: " + id));
+        if (expectedVersion != null && existing.getVersion() != expectedVersion) {
+            throw new VersionConflictException("Genre " + id + " has been modified, current version is "
+                    + existing.getVersion());
+        }
         existing.setName(genre.getName());
-        return genreRepository.save(existing);
+        Genre saved = genreRepository.save(existing);
+        AfterCommit.run(() -> {
+            genreCache.invalidate(id);
+            searchIndex.indexGenre(saved);
+            suggestIndex.indexGenre(saved);
+        });
+        catalogVersions.changed(Section.GENRES, Section.BOOKS);
+        return saved;
     }
 
     @Override
-    public void delete(Long id) {
+    @Transactional
+    public DeleteResult delete(Long id) {
         if (!genreRepository.existsById(id)) {
             throw new EntityNotFoundException("Genre not found with id: " + id);
         }
-        genreRepository.deleteById(id);
+        // The price index cannot find books by genre, so collect their ids before they go
+        List<Long> bookIds = priceIndex.isEnabled() ? bookRepository.findIdsByGenreId(id) : List.of();
+        int booksDeleted = bookRepository.deleteByGenreId(id);
+        genreRepository.deleteRowById(id);
+        AfterCommit.run(() -> {
+            genreCache.invalidate(id);
+            searchIndex.removeGenre(id);
+            bitmapIndex.removeGenre(id);
+            priceIndex.removeBooks(bookIds);
+            suggestIndex.removeGenre(id);
+        });
+        catalogVersions.changed(Section.GENRES, Section.BOOKS);
+        return new DeleteResult(id, booksDeleted);
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.dto.BulkItemError;
+import com.example.bookstore.dto.ImportJobStatus;
+import com.example.bookstore.dto.ImportState;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Progress of one CSV import; read by status requests while the import thread updates it
+final class ImportJob {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final String id;
+    private final List<BulkItemError> errors = new ArrayList<>();
+    private ImportState state;
+    private long rowsRead;
+    private long committedRows;
+    private long booksCreated;
+    private long authorsCreated;
+    private long genresCreated;
+    private long errorCount;
+    private long rowsAtStart;
+    private long startNanos;
+    private long endNanos;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String failure;
+
+    ImportJob(String id) {
+        this.id = id;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    synchronized void start() {
+        if (state == ImportState.RUNNING) {
+            throw new IllegalArgumentException("Import job is already running: " + id);
+        }
+        if (state == ImportState.COMPLETED) {
+            throw new IllegalArgumentException("Import job is already completed: " + id);
+        }
+        state = ImportState.RUNNING;
+        rowsAtStart = rowsRead;
+        startNanos = System.nanoTime();
+        endNanos = 0;
+        if (startedAt == null) {
+            startedAt = Instant.now();
+        }
+        finishedAt = null;
+        failure = null;
+    }
+
+    synchronized long getCommittedRows() {
+        return committedRows;
+    }
+
+    synchronized void rowRead() {
+        rowsRead++;
+    }
+
+    synchronized void committed(long lastRow, int books, int authors, int genres, List<BulkItemError> rowErrors) {
+        errorCount += rowErrors.size();
+        for (BulkItemError error : rowErrors) {
+            if (errors.size() == MAX_REPORTED_ERRORS) {
+                break;
+            }
+            errors.add(error);
+        }
+        committedRows = lastRow;
+        booksCreated += books;
+        authorsCreated += authors;
+        genresCreated += genres;
+    }
+
+    synchronized void complete() {
+        state = ImportState.COMPLETED;
+        endNanos = System.nanoTime();
+        finishedAt = Instant.now();
+    }
+
+    // Rows after committedRows were rolled back and are read again on resume
+    synchronized void fail(String message) {
+        state = ImportState.FAILED;
+        rowsRead = committedRows;
+        endNanos = System.nanoTime();
+        finishedAt = Instant.now();
+        failure = message;
+    }
+
+    synchronized double rowsPerSecond() {
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        double seconds = (end - startNanos) / 1_000_000_000.0;
+        return seconds <= 0 ? 0.0 : (rowsRead - rowsAtStart) / seconds;
+    }
+
+    synchronized ImportJobStatus status() {
+        return new ImportJobStatus(id, state, rowsRead, committedRows, booksCreated, authorsCreated, genresCreated,
+                errorCount, List.copyOf(errors), rowsPerSecond(),
+                startedAt, finishedAt, failure);
+    }
+}
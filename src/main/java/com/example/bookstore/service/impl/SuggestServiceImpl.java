@@ -0,0 +1,60 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.dto.Suggestion;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.SuggestIndex;
+import com.example.bookstore.service.SuggestService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@Timed(value = "bookstore.service", histogram = true)
+@RequiredArgsConstructor
+public class SuggestServiceImpl implements SuggestService {
+
+    private static final Comparator<Suggestion> HEAVIEST_FIRST = Comparator.comparingLong(Suggestion::weight)
+            .reversed()
+            .thenComparing(Suggestion::text)
+            .thenComparing(Suggestion::type)
+            .thenComparing(Suggestion::id);
+
+    private final SuggestIndex suggestIndex;
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final GenreRepository genreRepository;
+
+    @Override
+    public List<Suggestion> suggest(String prefix, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        int size = limit == null ? suggestIndex.topK() : Math.min(limit, suggestIndex.topK());
+        return suggestIndex.isActive()
+                ? suggestIndex.suggest(prefix, size)
+                : suggestDatabase(prefix, size);
+    }
+
+    // Three prefix LIKE queries merged by weight; word starts are found after spaces only
+    List<Suggestion> suggestDatabase(String prefix, int limit) {
+        String key = SuggestIndex.normalizePrefix(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        String start = key + "%";
+        String word = "% " + key + "%";
+        List<Suggestion> suggestions = new ArrayList<>();
+        suggestions.addAll(bookRepository.suggest(start, word, Limit.of(limit)));
+        suggestions.addAll(authorRepository.suggest(start, word, Limit.of(limit)));
+        suggestions.addAll(genreRepository.suggest(start, word, Limit.of(limit)));
+        suggestions.sort(HEAVIEST_FIRST);
+        return suggestions.size() > limit ? List.copyOf(suggestions.subList(0, limit)) : suggestions;
+    }
+}
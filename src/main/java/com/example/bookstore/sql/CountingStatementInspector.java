@@ -0,0 +1,16 @@
+package com.example.bookstore.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hands every SQL string Hibernate prepares to the open {@link SqlStatements} scopes, unchanged.
+ * A JDBC batch is prepared once and counts as one statement.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatements.record(sql);
+        return sql;
+    }
+}
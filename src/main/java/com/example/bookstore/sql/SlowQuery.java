@@ -0,0 +1,13 @@
+package com.example.bookstore.sql;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One statement that ran longer than the slow-query threshold. Bind values are never kept, only their JDBC setter
+ * types; {@code rows} is the rows updated, or the rows read for queries, which are timed until their result set
+ * closes. Statements run with {@code execute} report -1 when they return a result set.
+ */
+public record SlowQuery(Instant timestamp, String sql, List<String> parameterTypes, double durationMs, long rows,
+                        String origin, String thread) {
+}
@@ -0,0 +1,38 @@
+package com.example.bookstore.sql;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/slowqueries} lists the captured slow statements, newest first, with the plans explained so
+ * far; {@code DELETE} empties the log.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public SlowQueries slowQueries() {
+        return new SlowQueries(slowQueryLog.thresholdMillis(), slowQueryLog.captured(), slowQueryLog.recent(),
+                slowQueryLog.plans());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+
+    public record SlowQueries(long thresholdMs, long captured, List<SlowQuery> queries, Map<String, String> plans) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.bookstore.sql;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent slow statements. Writers claim a slot with one atomic increment and never
+ * block each other; readers copy the ring newest first. With {@code explain} on, the first slow occurrence of each
+ * SELECT shape is explained in the background on a separate connection.
+ */
+@Slf4j
+@Component
+public class SlowQueryLog {
+
+    static final String PLAN_PENDING = "pending";
+
+    private static final String OWN_PACKAGE = SlowQueryLog.class.getPackageName() + ".";
+    private static final String APPLICATION_PACKAGE = "com.example.bookstore.";
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final AtomicReferenceArray<SlowQuery> slots;
+    private final int mask;
+    private final AtomicLong written = new AtomicLong();
+    private final Map<String, String> plans = new ConcurrentHashMap<>();
+    private final ExecutorService explainer;
+
+    public SlowQueryLog(@Value("${bookstore.sql.slow-query.threshold-ms:200}") long thresholdMillis,
+                        @Value("${bookstore.sql.slow-query.capacity:256}") int capacity,
+                        @Value("${bookstore.sql.slow-query.explain:false}") boolean explain) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Slow query capacity must be positive");
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.explain = explain;
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.mask = slots.length() - 1;
+        this.explainer = explain ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    // Called by the JDBC proxies only for statements over the threshold; parameters are used for EXPLAIN only
+    void record(String sql, List<String> parameterTypes, Object[] parameters, long nanos, long rows,
+                DataSource dataSource) {
+        String shape = SqlStatements.shape(sql);
+        slots.set((int) (written.getAndIncrement() & mask), new SlowQuery(Instant.now(), shape, parameterTypes,
+                nanos / 1e6, rows, origin(), Thread.currentThread().getName()));
+        if (explain && shape.startsWith("select") && plans.size() < slots.length()
+                && plans.putIfAbsent(shape, PLAN_PENDING) == null) {
+            explainer.execute(() -> plans.put(shape, explain(dataSource, sql, parameters)));
+        }
+    }
+
+    public long thresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    public long captured() {
+        return written.get();
+    }
+
+    // Newest first
+    public List<SlowQuery> recent() {
+        long end = written.get();
+        List<SlowQuery> recent = new ArrayList<>();
+        for (long i = end - 1; i >= Math.max(0, end - slots.length()); i--) {
+            SlowQuery query = slots.get((int) (i & mask));
+            if (query != null) {
+                recent.add(query);
+            }
+        }
+        return recent;
+    }
+
+    public Map<String, String> plans() {
+        return new LinkedHashMap<>(plans);
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        written.set(0);
+        plans.clear();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (explainer != null) {
+            explainer.shutdownNow();
+        }
+    }
+
+    // The innermost application frame outside the JDBC proxies, usually a service or repository method
+    private static String origin() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(OWN_PACKAGE)
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName())
+                .orElse("unknown"));
+    }
+
+    private static String explain(DataSource dataSource, String sql, Object[] parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i < parameters.length; i++) {
+                statement.setObject(i, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                int columns = rows.getMetaData().getColumnCount();
+                while (rows.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        plan.append(column > 1 ? " | " : plan.isEmpty() ? "" : "\n").append(rows.getString(column));
+                    }
+                }
+            }
+            return plan.toString();
+        } catch (SQLException ex) {
+            log.debug("EXPLAIN failed for {}", sql, ex);
+            return "unavailable: " + ex.getMessage().lines().findFirst().orElse("");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.bookstore.sql;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-bound statement logs fed by {@link CountingStatementInspector}. A scope records every statement the
+ * current thread prepares until it is closed; scopes nest, so a test can count across requests that open their own.
+ */
+public final class SqlStatements {
+
+    private static final ThreadLocal<Deque<StatementLog>> ACTIVE = new ThreadLocal<>();
+
+    // Unrolled so the regex engine recurses per doubled quote, not per character
+    private static final Pattern STRING_LITERAL = Pattern.compile("'[^']*(?:''[^']*)*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlStatements() {
+    }
+
+    public static Scope open() {
+        Deque<StatementLog> logs = ACTIVE.get();
+        if (logs == null) {
+            logs = new ArrayDeque<>();
+            ACTIVE.set(logs);
+        }
+        StatementLog log = new StatementLog();
+        logs.push(log);
+        return new Scope(log);
+    }
+
+    static void record(String sql) {
+        Deque<StatementLog> logs = ACTIVE.get();
+        if (logs == null) {
+            return;
+        }
+        String shape = shape(sql);
+        for (StatementLog log : logs) {
+            log.record(shape);
+        }
+    }
+
+    // Literals and IN-list lengths removed, so the same query with other arguments has the same shape
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        shape = collapseInLists(shape);
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    // "(?, ?, ...)" becomes "(?)"; scanned by hand, as a regex recurses per element and overflows on long id lists
+    private static String collapseInLists(String sql) {
+        StringBuilder collapsed = new StringBuilder(sql.length());
+        int i = 0;
+        while (i < sql.length()) {
+            int end = sql.charAt(i) == '(' ? placeholderListEnd(sql, i + 1) : -1;
+            if (end > 0) {
+                collapsed.append("(?)");
+                i = end;
+            } else {
+                collapsed.append(sql.charAt(i++));
+            }
+        }
+        return collapsed.toString();
+    }
+
+    // Index just past the ")" closing a list of "?" starting at from, or -1 when something else is there
+    private static int placeholderListEnd(String sql, int from) {
+        int i = skipWhitespace(sql, from);
+        while (i < sql.length() && sql.charAt(i) == '?') {
+            i = skipWhitespace(sql, i + 1);
+            if (i < sql.length() && sql.charAt(i) == ')') {
+                return i + 1;
+            }
+            if (i >= sql.length() || sql.charAt(i) != ',') {
+                return -1;
+            }
+            i = skipWhitespace(sql, i + 1);
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(String sql, int from) {
+        int i = from;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final StatementLog log;
+
+        private Scope(StatementLog log) {
+            this.log = log;
+        }
+
+        public StatementLog log() {
+            return log;
+        }
+
+        @Override
+        public void close() {
+            Deque<StatementLog> logs = ACTIVE.get();
+            if (logs == null) {
+                return;
+            }
+            logs.remove(log);
+            if (logs.isEmpty()) {
+                ACTIVE.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.bookstore.sql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Statements prepared within one {@link SqlStatements#open() scope}, counted in total and per shape.
+ */
+public class StatementLog {
+
+    private int count;
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+
+    void record(String shape) {
+        count++;
+        shapes.merge(shape, 1, Integer::sum);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    // Statement shapes in first-seen order, with the number of times each was prepared
+    public Map<String, Integer> shapes() {
+        return Collections.unmodifiableMap(shapes);
+    }
+
+    public Optional<Map.Entry<String, Integer>> mostRepeated() {
+        return shapes.entrySet().stream().max(Map.Entry.comparingByValue())
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()));
+    }
+
+    public void clear() {
+        count = 0;
+        shapes.clear();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.bookstore.sql;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JDBC proxies that time every statement and hand the slow ones to {@link SlowQueryLog}. Updates are timed over their
+ * execute call. Queries are timed until their {@link TimedResultSet} is closed, so rows fetched after the first batch
+ * count too, and the rows read are recorded.
+ */
+public final class TimedDataSource {
+
+    private TimedDataSource() {
+    }
+
+    public static DataSource wrap(DataSource dataSource, SlowQueryLog slowQueryLog) {
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection
+                    ? proxy(Connection.class, new ConnectionHandler(connection, dataSource, slowQueryLog))
+                    : result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(), new Class<?>[] {type},
+                handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private record ConnectionHandler(Connection target, DataSource dataSource, SlowQueryLog slowQueryLog)
+            implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TimedDataSource.invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, new StatementHandler(statement, sql, this));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, new StatementHandler(statement, sql, this));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, new StatementHandler(statement, null, this));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final ConnectionHandler connection;
+        private Object[] parameters = new Object[8];
+        private String[] parameterTypes = new String[8];
+        private int parameterCount;
+        private TimedResultSet openResultSet;
+
+        private StatementHandler(Statement target, String preparedSql, ConnectionHandler connection) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            boolean bind = name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer;
+            // An open query is finished before its parameters change or the statement runs again or closes
+            if (openResultSet != null && (bind || name.startsWith("execute") || name.equals("clearParameters")
+                    || name.equals("close"))) {
+                openResultSet.finish();
+            }
+            if (name.startsWith("execute")) {
+                return execute(proxy, method, args);
+            }
+            if (bind) {
+                bind((Integer) args[0], name.substring(3), args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameterCount = 0;
+            }
+            return TimedDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long start = System.nanoTime();
+            Object result = TimedDataSource.invoke(target, method, args);
+            if (result instanceof ResultSet resultSet) {
+                openResultSet = new TimedResultSet(resultSet, (Statement) proxy, rows -> {
+                    openResultSet = null;
+                    finished(sql, System.nanoTime() - start, rows);
+                });
+                return openResultSet;
+            }
+            long nanos = System.nanoTime() - start;
+            long rows = result instanceof Number count ? count.longValue()
+                    : result instanceof int[] counts ? Arrays.stream(counts).asLongStream().sum()
+                    : result instanceof long[] counts ? Arrays.stream(counts).sum()
+                    : -1;
+            finished(sql, nanos, rows);
+            return result;
+        }
+
+        private void bind(int index, String type, Object value) {
+            if (index >= parameters.length) {
+                parameters = Arrays.copyOf(parameters, index * 2);
+                parameterTypes = Arrays.copyOf(parameterTypes, index * 2);
+            }
+            // setNull(index, sqlType) carries the type code, not a value
+            parameters[index] = type.equals("Null") ? null : value;
+            parameterTypes[index] = type;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        private void finished(String sql, long nanos, long rows) {
+            if (sql != null && connection.slowQueryLog().isSlow(nanos)) {
+                connection.slowQueryLog().record(sql,
+                        List.of(Arrays.copyOfRange(parameterTypes, 1, parameterCount + 1)),
+                        Arrays.copyOf(parameters, parameterCount + 1), nanos, rows, connection.dataSource());
+            }
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.bookstore.web;
 
+import com.example.bookstore.cache.CatalogSnapshotCache;
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.example.bookstore.cache.JsonSnapshot;
 import com.example.bookstore.domain.Author;
+import com.example.bookstore.dto.DeleteResult;
 import com.example.bookstore.service.AuthorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/authors")
@@ -15,6 +20,7 @@ import java.util.List;
 public class AuthorController {
 
     private final AuthorService authorService;
+    private final CatalogSnapshotCache snapshotCache;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -23,23 +29,35 @@ public class AuthorController {
     }
 
     @GetMapping("/{id}")
-    public Author getById(@PathVariable Long id) {
-        return authorService.getById(id);
+    public ResponseEntity<Author> getById(@PathVariable Long id) {
+        Author author = authorService.getById(id);
+        return ResponseEntity.ok().eTag(ETags.of(author)).body(author);
     }
 
     @GetMapping
-    public List<Author> getAll() {
-        return authorService.getAll();
+    public ResponseEntity<byte[]> getAll(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                         String acceptEncoding,
+                                         WebRequest request) {
+        JsonSnapshot snapshot = snapshotCache.page(Section.AUTHORS, after, limit,
+                () -> authorService.getAll(after, limit));
+        boolean gzipped = snapshot.useGzip(acceptEncoding);
+        if (request.checkNotModified(gzipped ? snapshot.gzipEtag() : snapshot.etag())) {
+            return null;
+        }
+        return snapshot.toResponse(gzipped);
     }
 
     @PutMapping("/{id}")
-    public Author update(@PathVariable Long id, @Valid @RequestBody Author author) {
-        return authorService.update(id, author);
+    public ResponseEntity<Author> update(@PathVariable Long id, @Valid @RequestBody Author author,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Author updated = authorService.update(id, author, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated)).body(updated);
     }
 
     @DeleteMapping("/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable Long id) {
-        authorService.delete(id);
+    public DeleteResult delete(@PathVariable Long id) {
+        return authorService.delete(id);
     }
 }
\ No newline at end of file
@@ -1,13 +1,29 @@
 package com.example.bookstore.web;
 
+import com.example.bookstore.cache.CatalogVersions;
+import com.example.bookstore.cache.CatalogVersions.Section;
 import com.example.bookstore.domain.Book;
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.dto.BulkCreateResult;
+import com.example.bookstore.dto.PurchaseResult;
+import com.example.bookstore.dto.SearchFacets;
+import com.example.bookstore.service.BookFilter;
 import com.example.bookstore.service.BookService;
+import com.example.bookstore.service.BookExportService;
+import com.example.bookstore.service.BookSort;
+import com.example.bookstore.service.ExportFormat;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/books")
@@ -15,6 +31,8 @@ import java.util.List;
 public class BookController {
 
     private final BookService bookService;
+    private final BookExportService bookExportService;
+    private final CatalogVersions catalogVersions;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -22,19 +40,56 @@ public class BookController {
         return bookService.create(book);
     }
 
+    @PostMapping("/bulk")
+    public BulkCreateResult createAll(@RequestBody List<Book> books) {
+        return bookService.createAll(books);
+    }
+
     @GetMapping("/{id}")
-    public Book getById(@PathVariable Long id) {
-        return bookService.getById(id);
+    public ResponseEntity<Book> getById(@PathVariable Long id) {
+        Book book = bookService.getById(id);
+        return ResponseEntity.ok().eTag(ETags.of(book)).body(book);
     }
 
     @GetMapping
-    public List<Book> getAll() {
-        return bookService.getAll();
+    public ResponseEntity<List<BookView>> getAll(@RequestParam(required = false) Long after,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(required = false) String sort,
+                                                 @RequestParam(required = false) Set<Long> genreId,
+                                                 @RequestParam(required = false) Set<Long> authorId,
+                                                 @RequestParam(defaultValue = "false") boolean inStock,
+                                                 @RequestParam(required = false) BigDecimal minPrice,
+                                                 @RequestParam(required = false) BigDecimal maxPrice,
+                                                 WebRequest request) {
+        boolean priceRange = minPrice != null || maxPrice != null;
+        BookSort bookSort = priceRange && sort == null ? BookSort.PRICE : BookSort.from(sort);
+        BookFilter filter = new BookFilter(genreId, authorId, inStock);
+        if (priceRange && bookSort != BookSort.PRICE) {
+            throw new IllegalArgumentException("Price ranges are only available sorted by price");
+        }
+        if (!filter.isEmpty() && bookSort != BookSort.ID) {
+            throw new IllegalArgumentException("Filtered listings are only available sorted by id");
+        }
+        String etag = ETags.quote(catalogVersions.tag(Section.BOOKS));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<BookView> books;
+        if (priceRange) {
+            books = bookService.getByPrice(minPrice, maxPrice, after, limit);
+        } else if (!filter.isEmpty()) {
+            books = bookService.filter(filter, after, limit);
+        } else {
+            books = bookService.getAll(after, limit, bookSort);
+        }
+        return ResponseEntity.ok().eTag(etag).body(books);
     }
 
     @PutMapping("/{id}")
-    public Book update(@PathVariable Long id, @Valid @RequestBody Book book) {
-        return bookService.update(id, book);
+    public ResponseEntity<Book> update(@PathVariable Long id, @Valid @RequestBody Book book,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Book updated = bookService.update(id, book, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated)).body(updated);
     }
 
     @DeleteMapping("/{id}")
@@ -43,10 +98,43 @@ public class BookController {
         bookService.delete(id);
     }
 
+    @PostMapping("/{id}/purchase")
+    public PurchaseResult purchase(@PathVariable Long id, @RequestParam int qty) {
+        return bookService.purchase(id, qty);
+    }
+
     @GetMapping("/search")
-    public List<Book> search(@RequestParam(required = false) String title,
-                             @RequestParam(required = false) String author,
-                             @RequestParam(required = false) String genre) {
-        return bookService.search(title, author, genre);
+    public ResponseEntity<List<BookView>> search(@RequestParam(required = false) String title,
+                                                 @RequestParam(required = false) String author,
+                                                 @RequestParam(required = false) String genre,
+                                                 WebRequest request) {
+        String etag = ETags.quote(catalogVersions.tag(Section.BOOKS));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(bookService.search(title, author, genre));
+    }
+
+    @GetMapping("/search/facets")
+    public ResponseEntity<SearchFacets> facets(@RequestParam(required = false) String title,
+                                               @RequestParam(required = false) String author,
+                                               @RequestParam(required = false) String genre,
+                                               WebRequest request) {
+        String etag = ETags.quote(catalogVersions.tag(Section.BOOKS));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(bookService.facets(title, author, genre));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> bookExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"books." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.example.bookstore.web;
+
+import com.example.bookstore.dto.ImportJobStatus;
+import com.example.bookstore.service.CatalogImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+public class CatalogImportController {
+
+    private final CatalogImportService catalogImportService;
+
+    @PostMapping(consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImportJobStatus> importCsv(InputStream body,
+                                                     @RequestParam(required = false) String resume) {
+        ImportJobStatus status = catalogImportService.importCsv(body, resume);
+        // Progress and the outcome are read from GET /api/imports/{id}
+        return ResponseEntity.accepted().location(URI.create("/api/imports/" + status.id())).body(status);
+    }
+
+    @GetMapping
+    public List<ImportJobStatus> getAll() {
+        return catalogImportService.getJobs();
+    }
+
+    @GetMapping("/{id}")
+    public ImportJobStatus getById(@PathVariable String id) {
+        return catalogImportService.getJob(id);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.bookstore.web;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.service.VersionConflictException;
+
+// Strong ETags derived from entity versions, and the version an If-Match header asks for
+final class ETags {
+
+    private ETags() {
+    }
+
+    // A book is rendered with its author and genre names, so their versions are part of its tag
+    static String of(Book book) {
+        return quote(book.getVersion() + "." + book.getAuthor().getVersion() + "." + book.getGenre().getVersion());
+    }
+
+    static String of(Author author) {
+        return quote(Long.toString(author.getVersion()));
+    }
+
+    static String of(Genre genre) {
+        return quote(Long.toString(genre.getVersion()));
+    }
+
+    static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * Returns the entity version an {@code If-Match} header requires, or {@code null} when the header
+     * is absent or {@code *}. Only the first tag of a list is used; the entity's own version is its
+     * leading number.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.split(",")[0].trim();
+        if (tag.startsWith("W/")) {
+            throw new VersionConflictException("Weak ETags cannot be used with If-Match");
+        }
+        tag = tag.replace("\"", "");
+        int dot = tag.indexOf('.');
+        try {
+            return Long.parseLong(dot < 0 ? tag : tag.substring(0, dot));
+        } catch (NumberFormatException ex) {
+            throw new VersionConflictException("If-Match does not match the current version");
+        }
+    }
+}
@@ -1,21 +1,28 @@
 package com.example.bookstore.web;
 
+import com.example.bookstore.cache.CatalogSnapshotCache;
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.example.bookstore.cache.JsonSnapshot;
 import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.DeleteResult;
 import com.example.bookstore.service.GenreService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/genres")
@@ -23,6 +30,7 @@ import java.util.List;
 public class GenreController {
 
     private final GenreService genreService;
+    private final CatalogSnapshotCache snapshotCache;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -31,23 +39,35 @@ public class GenreController {
     }
 
     @GetMapping("/{id}")
-    public Genre getById(@PathVariable Long id) {
-        return genreService.getById(id);
+    public ResponseEntity<Genre> getById(@PathVariable Long id) {
+        Genre genre = genreService.getById(id);
+        return ResponseEntity.ok().eTag(ETags.of(genre)).body(genre);
     }
 
     @GetMapping
-    public List<Genre> getAll() {
-        return genreService.getAll();
+    public ResponseEntity<byte[]> getAll(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                         String acceptEncoding,
+                                         WebRequest request) {
+        JsonSnapshot snapshot = snapshotCache.page(Section.GENRES, after, limit,
+                () -> genreService.getAll(after, limit));
+        boolean gzipped = snapshot.useGzip(acceptEncoding);
+        if (request.checkNotModified(gzipped ? snapshot.gzipEtag() : snapshot.etag())) {
+            return null;
+        }
+        return snapshot.toResponse(gzipped);
     }
 
     @PutMapping("/{id}")
-    public Genre update(@PathVariable Long id, @Valid @RequestBody Genre genre) {
-        return genreService.update(id, genre);
+    public ResponseEntity<Genre> update(@PathVariable Long id, @Valid @RequestBody Genre genre,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Genre updated = genreService.update(id, genre, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated)).body(updated);
     }
 
     @DeleteMapping("/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable Long id) {
-        genreService.delete(id);
+    public DeleteResult delete(@PathVariable Long id) {
+        return genreService.delete(id);
     }
 }
\ No newline at end of file
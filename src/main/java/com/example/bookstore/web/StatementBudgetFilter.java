@@ -0,0 +1,70 @@
+package com.example.bookstore.web;
+
+import com.example.bookstore.sql.SqlStatements;
+import com.example.bookstore.sql.StatementLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each request prepares on its own thread. A request over the statement budget, or one that
+ * prepares the same statement shape too often (the usual N+1 signature), is logged with its statements and counted in
+ * {@code bookstore.sql.budget.violations}.
+ */
+@Slf4j
+@Component
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int maxRepeats;
+
+    public StatementBudgetFilter(MeterRegistry meterRegistry,
+                                 @Value("${bookstore.sql.max-statements-per-request:20}") int maxStatements,
+                                 @Value("${bookstore.sql.max-repeated-statements:5}") int maxRepeats) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (SqlStatements.Scope scope = SqlStatements.open()) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                check(request, scope.log());
+            }
+        }
+    }
+
+    private void check(HttpServletRequest request, StatementLog statements) {
+        if (statements.count() > maxStatements) {
+            violation("budget");
+            log.warn("{} {} prepared {} SQL statements, budget is {}: {}", request.getMethod(),
+                    request.getRequestURI(), statements.count(), maxStatements, statements.shapes());
+        }
+        statements.mostRepeated()
+                .filter(repeated -> repeated.getValue() > maxRepeats)
+                .map(Map.Entry::getKey)
+                .ifPresent(shape -> {
+                    violation("repeated");
+                    log.warn("{} {} prepared the same SQL statement {} times, possible N+1: {}", request.getMethod(),
+                            request.getRequestURI(), statements.shapes().get(shape), shape);
+                });
+    }
+
+    private void violation(String kind) {
+        meterRegistry.counter("bookstore.sql.budget.violations", "kind", kind).increment();
+    }
+}
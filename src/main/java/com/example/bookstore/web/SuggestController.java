@@ -0,0 +1,25 @@
+package com.example.bookstore.web;
+
+import com.example.bookstore.dto.Suggestion;
+import com.example.bookstore.service.SuggestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/suggest")
+@RequiredArgsConstructor
+public class SuggestController {
+
+    private final SuggestService suggestService;
+
+    @GetMapping
+    public List<Suggestion> suggest(@RequestParam String prefix,
+                                    @RequestParam(required = false) Integer limit) {
+        return suggestService.suggest(prefix, limit);
+    }
+}
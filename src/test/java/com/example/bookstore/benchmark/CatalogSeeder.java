@@ -0,0 +1,91 @@
+package com.example.bookstore.benchmark;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generated catalog shared by the JMH benchmarks ({@code src/jmh}) and the HTTP load test
+ * ({@code src/loadtest}), both of which compile against the test sources.
+ */
+public final class CatalogSeeder {
+
+    public static final String[] WORDS = {
+        "the", "of", "shadow", "river", "king", "night", "garden", "stone", "winter", "empire", "last",
+        "secret", "house", "fire", "ocean", "song", "silver", "crown", "dragon", "machine", "city",
+        "forest", "storm", "glass", "memory", "star", "iron", "letters", "journey", "north", "dream"
+    };
+
+    private static final String[] SYLLABLES = {
+        "ka", "ro", "lin", "ves", "ta", "mor", "del", "an", "thi", "qu", "zen", "bra", "fel", "ix", "on",
+        "sha", "dur", "ail", "ve", "nor", "pel", "ga", "rin", "to", "mi", "sar", "eth", "ul", "cor", "ny"
+    };
+
+    private CatalogSeeder() {
+    }
+
+    public static void seed(BookRepository bookRepository, AuthorRepository authorRepository,
+                            GenreRepository genreRepository, int books) {
+        Random random = new Random(42);
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, books / 50); i++) {
+            authors.add(Author.builder().name("Author " + word(random) + " " + i).build());
+        }
+        authors = authorRepository.saveAll(authors);
+        List<Genre> genres = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            genres.add(Genre.builder().name("Genre " + word(random) + " " + i).build());
+        }
+        genres = genreRepository.saveAll(genres);
+
+        List<Book> batch = new ArrayList<>();
+        for (int i = 0; i < books; i++) {
+            batch.add(Book.builder()
+                    .title(title(random))
+                    .price(BigDecimal.valueOf(100 + random.nextInt(9_900), 2))
+                    .quantity(random.nextInt(50))
+                    .author(authors.get(random.nextInt(authors.size())))
+                    .genre(genres.get(random.nextInt(genres.size())))
+                    .build());
+            if (batch.size() == 1_000) {
+                bookRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        bookRepository.saveAll(batch);
+    }
+
+    // A few common words plus one rarer invented name, like "Silver Crown of Ravesta"
+    public static String title(Random random) {
+        int words = 1 + random.nextInt(3);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            String word = word(random);
+            title.append(capitalize(word));
+        }
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 2 + random.nextInt(2); i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return title.append(' ').append(capitalize(name.toString())).toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.repository.AuthorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthorCacheTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    private AuthorCache authorCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        authorCache = new AuthorCache(authorRepository, 100);
+    }
+
+    @Test
+    void findById_ReadsThroughRepositoryOnce() {
+        Author author = Author.builder().id(1L).name("Author Name").build();
+        when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
+
+        authorCache.findById(1L);
+        Optional<Author> cached = authorCache.findById(1L);
+
+        assertEquals(Optional.of(author), cached);
+        verify(authorRepository, times(1)).findById(1L);
+        assertEquals(1, authorCache.stats().hits());
+    }
+
+    @Test
+    void invalidate_ReloadsFromRepository() {
+        Author author = Author.builder().id(1L).name("Author Name").build();
+        when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
+
+        authorCache.findById(1L);
+        authorCache.invalidate(1L);
+        authorCache.findById(1L);
+
+        verify(authorRepository, times(2)).findById(1L);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.bookstore.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedCacheTest {
+
+    @Test
+    void get_LoadsOnceThenHits() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Optional.of("one"), cache.get(1L, key -> {
+                loads.incrementAndGet();
+                return Optional.of("one");
+            }));
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(new CacheStats(2, 1, 0, 1), cache.stats());
+    }
+
+    @Test
+    void get_ValueFailingPredicateIsReturnedButNotCached() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10);
+
+        assertEquals("too long", cache.get(1L, key -> "too long", value -> value.length() < 5));
+        assertEquals("ok", cache.get(2L, key -> "ok", value -> value.length() < 5));
+        assertEquals("ok", cache.get(2L, key -> "reloaded", value -> true));
+
+        assertEquals(new CacheStats(1, 2, 0, 1), cache.stats());
+    }
+
+    @Test
+    void get_MissingValueIsNotCached() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10);
+
+        cache.get(1L, key -> Optional.empty());
+        cache.get(1L, key -> Optional.empty());
+
+        assertEquals(new CacheStats(0, 2, 0, 0), cache.stats());
+    }
+
+    @Test
+    void get_EvictsLeastRecentlyUsed() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(2);
+        cache.get(1L, key -> Optional.of("one"));
+        cache.get(2L, key -> Optional.of("two"));
+        cache.get(1L, key -> Optional.of("one"));
+        cache.get(3L, key -> Optional.of("three"));
+
+        assertEquals(Optional.of("one"), cache.get(1L, key -> Optional.of("reloaded")));
+        assertEquals(Optional.of("reloaded"), cache.get(2L, key -> Optional.of("reloaded")));
+        assertEquals(2, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    void invalidate_ForcesReload() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10);
+        cache.get(1L, key -> Optional.of("old"));
+        cache.get(2L, key -> Optional.of("other"));
+
+        cache.invalidate(1L);
+
+        assertEquals(Optional.of("new"), cache.get(1L, key -> Optional.of("new")));
+        cache.invalidateAll();
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void invalidate_DuringLoad_DropsStaleValue() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10);
+
+        cache.get(1L, key -> {
+            cache.invalidate(1L);
+            return Optional.of("stale");
+        });
+
+        assertEquals(0, cache.stats().size());
+        assertTrue(cache.stats().hitRatio() < 0.01);
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<Long, String>(0));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotCacheTest {
+
+    private CatalogVersions catalogVersions;
+    private CatalogSnapshotCache snapshotCache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        catalogVersions = new CatalogVersions();
+        snapshotCache = new CatalogSnapshotCache(new ObjectMapper(), catalogVersions, 16);
+    }
+
+    @Test
+    void page_SerializesOncePerVersion() throws IOException {
+        JsonSnapshot first = snapshotCache.page(Section.GENRES, null, null, this::load);
+        JsonSnapshot second = snapshotCache.page(Section.GENRES, 0L, 20, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals("[\"Fantasy\",1]", new String(first.json(), StandardCharsets.UTF_8));
+        assertArrayEquals(first.json(), new GZIPInputStream(new ByteArrayInputStream(first.gzip())).readAllBytes());
+        assertNotEquals(first.etag(), first.gzipEtag());
+    }
+
+    @Test
+    void page_ReloadsAfterSectionChanges() {
+        JsonSnapshot before = snapshotCache.page(Section.GENRES, null, null, this::load);
+        snapshotCache.page(Section.AUTHORS, null, null, this::load);
+
+        catalogVersions.changed(Section.GENRES);
+        JsonSnapshot after = snapshotCache.page(Section.GENRES, null, null, this::load);
+
+        assertEquals(3, loads.get());
+        assertNotEquals(before.etag(), after.etag());
+        assertEquals("[\"Fantasy\",3]", new String(after.json(), StandardCharsets.UTF_8));
+        assertSame(snapshotCache.page(Section.AUTHORS, null, null, this::load),
+                snapshotCache.page(Section.AUTHORS, null, null, this::load));
+    }
+
+    @Test
+    void useGzip_HonoursAcceptEncoding() {
+        JsonSnapshot snapshot = snapshotCache.page(Section.GENRES, null, null, this::load);
+
+        assertTrue(snapshot.useGzip("gzip, deflate, br"));
+        assertTrue(snapshot.useGzip("br;q=1.0, gzip;q=0.8"));
+        assertFalse(snapshot.useGzip("gzip;q=0"));
+        assertFalse(snapshot.useGzip("gzip;q=0.0"));
+        assertFalse(snapshot.useGzip("gzip; q=0.000"));
+        assertFalse(snapshot.useGzip("gzip;q=0, deflate"));
+        assertFalse(snapshot.useGzip("gzip;q=none"));
+        assertTrue(snapshot.useGzip("GZIP;Q=0.001"));
+        assertFalse(snapshot.useGzip("identity"));
+        assertFalse(snapshot.useGzip(null));
+    }
+
+    private List<Object> load() {
+        return List.of("Fantasy", loads.incrementAndGet());
+    }
+}
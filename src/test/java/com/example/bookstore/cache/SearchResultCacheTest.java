@@ -0,0 +1,78 @@
+package com.example.bookstore.cache;
+
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.example.bookstore.cache.SearchResultCache.Query;
+import com.example.bookstore.dto.BookView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchResultCacheTest {
+
+    private CatalogVersions catalogVersions;
+    private SearchResultCache searchCache;
+    private final List<Query> loads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        catalogVersions = new CatalogVersions();
+        searchCache = new SearchResultCache(catalogVersions, 16, 2);
+    }
+
+    @Test
+    void query_IsTrimmedAndLowerCased() {
+        assertEquals(new Query("the hobbit", null, "fantasy"), Query.of("  The Hobbit ", "  ", "FANTASY"));
+        assertEquals(new Query(null, null, null), Query.of(null, "", null));
+    }
+
+    @Test
+    void get_SpellingsOfOneQueryShareAnEntry() {
+        List<BookView> first = searchCache.get(Query.of("Hobbit", null, null), this::load);
+        List<BookView> second = searchCache.get(Query.of(" hobbit ", "", null), this::load);
+
+        assertSame(first, second);
+        assertEquals(List.of(new Query("hobbit", null, null)), loads);
+        assertEquals(new CacheStats(1, 1, 0, 1), searchCache.stats());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(first.get(0)));
+    }
+
+    @Test
+    void get_ReloadsAfterBooksChange() {
+        searchCache.get(Query.of("hobbit", null, null), this::load);
+        catalogVersions.changed(Section.AUTHORS);
+        searchCache.get(Query.of("hobbit", null, null), this::load);
+        catalogVersions.changed(Section.BOOKS);
+        searchCache.get(Query.of("hobbit", null, null), this::load);
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void get_ResultsOverTheCapAreNotCached() {
+        Query wide = Query.of(null, null, "fiction");
+        assertEquals(3, searchCache.get(wide, query -> views(3)).size());
+        assertEquals(3, searchCache.get(wide, query -> views(3)).size());
+
+        assertEquals(new CacheStats(0, 2, 0, 0), searchCache.stats());
+    }
+
+    private List<BookView> load(Query query) {
+        loads.add(query);
+        return views(1);
+    }
+
+    private static List<BookView> views(int count) {
+        List<BookView> views = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            views.add(new BookView(id, "Book " + id, BigDecimal.TEN, 1, 1L, "Author", 1L, "Genre"));
+        }
+        return views;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.bookstore.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookSequenceInitializerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    private BookSequenceInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        initializer = new BookSequenceInitializer(jdbcTemplate, entityManagerFactory);
+    }
+
+    @Test
+    void mySql_MovesTablePastExistingIds() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("MySQL");
+        when(jdbcTemplate.queryForObject("select max(id) from books", Long.class)).thenReturn(1234L);
+
+        initializer.afterPropertiesSet();
+
+        verify(jdbcTemplate).update("update book_seq set next_val = ? where next_val < ?", 1284L, 1284L);
+    }
+
+    @Test
+    void mySql_EmptyCatalogIsLeftAlone() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("MySQL");
+        when(jdbcTemplate.queryForObject("select max(id) from books", Long.class)).thenReturn(null);
+
+        initializer.afterPropertiesSet();
+
+        verify(jdbcTemplate, never()).update(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void nativeSequences_AreLeftAlone() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        initializer.afterPropertiesSet();
+
+        verify(jdbcTemplate, never()).queryForObject(eq("select max(id) from books"), eq(Long.class));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.service.BookFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class BookBitmapIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(bookRepository.streamFilterableBooks()).thenReturn(Stream.of(
+                new FilterableBook(1L, 1L, 1L, 5, BigDecimal.TEN),
+                new FilterableBook(2L, 1L, 1L, 0, BigDecimal.TEN),
+                new FilterableBook(3L, 2L, 2L, 3, BigDecimal.TEN),
+                new FilterableBook(4L, 3L, 1L, 1, BigDecimal.TEN),
+                new FilterableBook(5L, 2L, 3L, 0, BigDecimal.TEN)));
+
+        index = new BookBitmapIndex(bookRepository, transactionManager, true);
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_MakesIndexActive() {
+        assertTrue(index.isActive());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), index.page(filter(Set.of(), Set.of(), false), 0, 10));
+    }
+
+    @Test
+    void page_OrsWithinAndAndsAcrossFilters() {
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.page(filter(Set.of(1L, 2L), Set.of(), false), 0, 10));
+        assertEquals(List.of(1L, 2L, 3L), index.page(filter(Set.of(1L, 2L), Set.of(1L, 2L), false), 0, 10));
+        assertEquals(List.of(1L, 3L), index.page(filter(Set.of(1L, 2L), Set.of(1L, 2L), true), 0, 10));
+        assertEquals(List.of(1L, 3L, 4L), index.page(filter(Set.of(), Set.of(), true), 0, 10));
+        assertEquals(List.of(), index.page(filter(Set.of(99L), Set.of(), false), 0, 10));
+    }
+
+    @Test
+    void page_ResumesAfterCursorAndHonorsLimit() {
+        BookFilter fantasy = filter(Set.of(1L), Set.of(), false);
+
+        assertEquals(List.of(1L, 2L), index.page(fantasy, 0, 2));
+        assertEquals(List.of(4L), index.page(fantasy, 2, 2));
+        assertEquals(List.of(), index.page(fantasy, 4, 2));
+    }
+
+    @Test
+    void writes_KeepBitmapsCurrent() {
+        Book moved = book(2L, 2L, 2L, 4);
+        index.reindexBook(moved, 1L, 1L);
+        index.updateStock(1L, 0);
+        index.indexBook(book(6L, 1L, 1L, 2));
+
+        assertEquals(List.of(1L, 6L), index.page(filter(Set.of(), Set.of(1L), false), 0, 10));
+        assertEquals(List.of(2L, 3L, 4L, 6L), index.page(filter(Set.of(), Set.of(), true), 0, 10));
+
+        index.removeBook(new FilterableBook(3L, 2L, 2L, 3, BigDecimal.TEN));
+        assertEquals(List.of(2L), index.page(filter(Set.of(2L), Set.of(), false), 0, 10));
+    }
+
+    @Test
+    void removeAuthorAndGenre_DropTheirBooksEverywhere() {
+        index.removeAuthor(2L);
+        assertEquals(List.of(1L, 2L, 4L), index.page(filter(Set.of(), Set.of(), false), 0, 10));
+        assertEquals(List.of(), index.page(filter(Set.of(3L), Set.of(), false), 0, 10));
+
+        index.removeGenre(1L);
+        assertEquals(List.of(), index.page(filter(Set.of(), Set.of(), false), 0, 10));
+    }
+
+    @Test
+    void idBeyondIntRange_DeactivatesIndex() {
+        index.indexBook(book(Integer.MAX_VALUE + 1L, 1L, 1L, 1));
+
+        assertFalse(index.isActive());
+    }
+
+    @Test
+    void rebuild_AppliesWriteMadeWhileBuilding() throws InterruptedException {
+        WriteDuringBuild write = new WriteDuringBuild(() -> index.indexBook(book(6L, 1L, 1L, 2)));
+        when(bookRepository.streamFilterableBooks()).thenReturn(write.rows(
+                new FilterableBook(1L, 1L, 1L, 5, BigDecimal.TEN),
+                new FilterableBook(3L, 2L, 2L, 3, BigDecimal.TEN)));
+
+        index.rebuild();
+        write.await();
+
+        assertEquals(List.of(1L, 6L), index.page(filter(Set.of(1L), Set.of(), true), 0, 10));
+    }
+
+    @Test
+    void disabled_NeverBecomesActive() {
+        BookBitmapIndex disabled = new BookBitmapIndex(bookRepository, transactionManager, false);
+        disabled.rebuild();
+
+        assertFalse(disabled.isActive());
+    }
+
+    private static BookFilter filter(Set<Long> genreIds, Set<Long> authorIds, boolean inStock) {
+        return new BookFilter(genreIds, authorIds, inStock);
+    }
+
+    private static Book book(Long id, Long authorId, Long genreId, int quantity) {
+        return Book.builder()
+                .id(id)
+                .title("Book " + id)
+                .price(BigDecimal.TEN)
+                .quantity(quantity)
+                .author(Author.builder().id(authorId).name("Author " + authorId).build())
+                .genre(Genre.builder().id(genreId).name("Genre " + genreId).build())
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class BookPriceIndexTest {
+
+    private static final long MIN = Long.MIN_VALUE;
+    private static final long MAX = Long.MAX_VALUE;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(bookRepository.streamPricedBooks()).thenReturn(Stream.of(
+                new PricedBook(4L, new BigDecimal("5.00")),
+                new PricedBook(1L, new BigDecimal("9.99")),
+                new PricedBook(2L, new BigDecimal("9.99")),
+                new PricedBook(3L, new BigDecimal("24.50"))));
+
+        index = new BookPriceIndex(bookRepository, transactionManager, true);
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_MakesIndexActive() {
+        assertTrue(index.isActive());
+        assertEquals(4, index.size());
+        assertArrayEquals(new long[]{4, 1, 2, 3}, index.page(MIN, MAX, MIN, MIN, 10));
+    }
+
+    @Test
+    void page_BoundsAreInclusive() {
+        assertArrayEquals(new long[]{1, 2, 3}, index.page(999, 2450, MIN, MIN, 10));
+        assertArrayEquals(new long[]{1, 2}, index.page(999, 999, MIN, MIN, 10));
+        assertArrayEquals(new long[]{}, index.page(1000, 2449, MIN, MIN, 10));
+        assertArrayEquals(new long[]{}, index.page(3000, MAX, MIN, MIN, 10));
+    }
+
+    @Test
+    void page_ResumesAfterPriceAndIdCursor() {
+        assertArrayEquals(new long[]{4, 1}, index.page(MIN, MAX, MIN, MIN, 2));
+        assertArrayEquals(new long[]{2, 3}, index.page(MIN, MAX, 999, 1, 2));
+        assertArrayEquals(new long[]{3}, index.page(MIN, MAX, 999, 2, 2));
+        assertArrayEquals(new long[]{2}, index.page(MIN, 999, 999, 1, 2));
+    }
+
+    @Test
+    void writes_KeepPriceOrder() {
+        index.indexBook(book(5L, "7.25"));
+        index.reprice(3L, new BigDecimal("24.50"), new BigDecimal("1.00"));
+        index.removeBook(1L, new BigDecimal("9.99"));
+
+        assertArrayEquals(new long[]{3, 4, 5, 2}, index.page(MIN, MAX, MIN, MIN, 10));
+    }
+
+    @Test
+    void indexBooks_MergesBatch() {
+        index.indexBooks(List.of(book(9L, "9.99"), book(6L, "30.00"), book(7L, "0.50"), book(8L, "9.99")));
+
+        assertArrayEquals(new long[]{7, 4, 1, 2, 8, 9, 3, 6}, index.page(MIN, MAX, MIN, MIN, 10));
+    }
+
+    @Test
+    void removeBooks_CompactsInOnePass() {
+        index.removeBooks(List.of(1L, 3L, 42L));
+
+        assertArrayEquals(new long[]{4, 2}, index.page(MIN, MAX, MIN, MIN, 10));
+    }
+
+    @Test
+    void cents_RoundsToTheColumnScale() {
+        assertEquals(999, BookPriceIndex.cents(new BigDecimal("9.99")));
+        assertEquals(1000, BookPriceIndex.cents(new BigDecimal("9.995")));
+        assertEquals(1200, BookPriceIndex.cents(new BigDecimal("12")));
+    }
+
+    @Test
+    void rebuild_AppliesWriteMadeWhileBuilding() throws InterruptedException {
+        WriteDuringBuild write = new WriteDuringBuild(() -> index.removeBook(1L, new BigDecimal("9.99")));
+        when(bookRepository.streamPricedBooks()).thenReturn(write.rows(
+                new PricedBook(4L, new BigDecimal("5.00")),
+                new PricedBook(1L, new BigDecimal("9.99")),
+                new PricedBook(3L, new BigDecimal("24.50"))));
+
+        index.rebuild();
+        write.await();
+
+        assertArrayEquals(new long[]{4, 3}, index.page(MIN, MAX, MIN, MIN, 10));
+    }
+
+    @Test
+    void disabled_NeverBecomesActive() {
+        BookPriceIndex disabled = new BookPriceIndex(bookRepository, transactionManager, false);
+        disabled.rebuild();
+
+        assertFalse(disabled.isActive());
+    }
+
+    private static Book book(Long id, String price) {
+        return Book.builder().id(id).title("Book " + id).price(new BigDecimal(price)).quantity(1).build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.FacetCount;
+import com.example.bookstore.dto.PriceRangeCount;
+import com.example.bookstore.dto.SearchFacets;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookSearchIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private GenreRepository genreRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookSearchIndex index;
+
+    private Author tolkien;
+    private Author herbert;
+    private Genre fantasy;
+    private Genre sciFi;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tolkien = Author.builder().id(1L).name("J.R.R. Tolkien").build();
+        herbert = Author.builder().id(2L).name("Frank Herbert").build();
+        fantasy = Genre.builder().id(1L).name("Fantasy").build();
+        sciFi = Genre.builder().id(2L).name("Science Fiction").build();
+
+        when(authorRepository.findAll()).thenReturn(List.of(tolkien, herbert));
+        when(genreRepository.findAll()).thenReturn(List.of(fantasy, sciFi));
+        when(bookRepository.streamIndexedBooks()).thenReturn(Stream.of(
+                new IndexedBook(1L, "The Hobbit", new BigDecimal("9.99"), 1L, 1L),
+                new IndexedBook(2L, "The Fellowship of the Ring", new BigDecimal("24.50"), 1L, 1L),
+                new IndexedBook(3L, "Dune", new BigDecimal("12.00"), 2L, 2L)));
+
+        index = new BookSearchIndex(bookRepository, authorRepository, genreRepository,
+                transactionManager, SearchMode.INDEX);
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_MakesIndexActive() {
+        assertTrue(index.isActive());
+        assertEquals(List.of(1L, 2L, 3L), index.search(null, null, null));
+    }
+
+    @Test
+    void search_MatchesSubstringsInsideTokens() {
+        assertEquals(List.of(1L), index.search("obbi", null, null));
+        assertEquals(List.of(2L), index.search("SHIP OF T", null, null));
+        assertEquals(List.of(), index.search("hobbit ring", null, null));
+    }
+
+    @Test
+    void search_FindsTokensThroughTheirTrigrams() {
+        assertEquals(List.of(1L), index.search("bbit", null, null));
+        assertEquals(List.of(2L), index.search("lowsh", null, null));
+        assertEquals(List.of(), index.search("bbix", null, null));
+        assertEquals(List.of(1L, 2L, 3L), index.search("e", null, null));
+
+        index.indexBook(Book.builder().id(1L).title("The Hobnob").author(tolkien).genre(fantasy).build());
+        assertEquals(List.of(), index.search("bbit", null, null));
+        assertEquals(List.of(1L), index.search("bno", null, null));
+    }
+
+    @Test
+    void search_IntersectsFields() {
+        assertEquals(List.of(1L, 2L), index.search("the", "tolkien", "fantasy"));
+        assertEquals(List.of(), index.search("the", "herbert", null));
+        assertEquals(List.of(3L), index.search(null, "herb", "fiction"));
+    }
+
+    @Test
+    void search_TermWithoutLettersOrDigits_ChecksWholeText() {
+        assertEquals(List.of(1L, 2L), index.search(null, "r.r.", null));
+        assertEquals(List.of(1L, 2L, 3L), index.search(null, null, null));
+        assertEquals(List.of(), index.search("--", null, null));
+    }
+
+    @Test
+    void writes_KeepIndexCurrent() {
+        index.indexBook(Book.builder().id(4L).title("Dune Messiah").author(herbert).genre(sciFi).build());
+        index.indexBook(Book.builder().id(1L).title("The Hobbit, Revised").author(tolkien).genre(sciFi).build());
+
+        assertEquals(List.of(3L, 4L), index.search("dune", null, null));
+        assertEquals(List.of(1L, 3L, 4L), index.search(null, null, "science"));
+
+        index.indexAuthor(Author.builder().id(2L).name("F. Herbert").build());
+        assertEquals(List.of(), index.search(null, "frank", null));
+        assertEquals(List.of(3L, 4L), index.search(null, "f. herbert", null));
+
+        index.removeBook(3L);
+        assertEquals(List.of(4L), index.search("dune", null, null));
+
+        index.removeAuthor(1L);
+        assertEquals(List.of(4L), index.search(null, null, null));
+
+        index.removeGenre(2L);
+        assertEquals(List.of(), index.search(null, null, null));
+    }
+
+    @Test
+    void facets_CountMatchesByGenreAuthorAndPrice() {
+        SearchFacets facets = index.facets("the", null, null, new PriceBuckets(List.of(BigDecimal.TEN)))
+                .toFacets(10);
+
+        assertEquals(2, facets.total());
+        assertEquals(List.of(new FacetCount(1L, "Fantasy", 2)), facets.genres());
+        assertEquals(List.of(new FacetCount(1L, "J.R.R. Tolkien", 2)), facets.authors());
+        assertEquals(List.of(new PriceRangeCount(BigDecimal.ZERO, BigDecimal.TEN, 1),
+                new PriceRangeCount(BigDecimal.TEN, null, 1)), facets.prices());
+
+        SearchFacets all = index.facets(null, null, null, new PriceBuckets(List.of(BigDecimal.TEN))).toFacets(1);
+        assertEquals(3, all.total());
+        assertEquals(List.of(new FacetCount(1L, "Fantasy", 2)), all.genres());
+    }
+
+    @Test
+    void rebuild_AppliesWriteMadeWhileBuilding() throws InterruptedException {
+        WriteDuringBuild write = new WriteDuringBuild(() -> index.indexBook(
+                Book.builder().id(4L).title("Dune Messiah").price(BigDecimal.ONE).author(herbert).genre(sciFi).build()));
+        when(bookRepository.streamIndexedBooks()).thenReturn(write.rows(
+                new IndexedBook(1L, "The Hobbit", new BigDecimal("9.99"), 1L, 1L),
+                new IndexedBook(3L, "Dune", new BigDecimal("12.00"), 2L, 2L)));
+
+        index.rebuild();
+        write.await();
+
+        assertEquals(List.of(3L, 4L), index.search("dune", null, null));
+    }
+
+    @Test
+    void databaseMode_NeverBuildsIndex() {
+        BookSearchIndex disabled = new BookSearchIndex(bookRepository, authorRepository, genreRepository,
+                transactionManager, SearchMode.DATABASE);
+
+        disabled.rebuild();
+        disabled.indexBook(Book.builder().id(5L).title("Emma").author(tolkien).genre(fantasy).build());
+
+        assertFalse(disabled.isActive());
+        verify(bookRepository, times(1)).streamIndexedBooks();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bookstore.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchMetricsTest {
+
+    @Test
+    void modeTags_DoNotDependOnTheDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            new SearchMetrics(registry).record(SearchMode.INDEX, 3);
+
+            assertEquals(3, registry.get("bookstore.search.results").tag("mode", "index").summary().totalAmount());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.Suggestion;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class SuggestIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private GenreRepository genreRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SuggestIndex index;
+
+    private Author tolkien;
+    private Author herbert;
+    private Genre fantasy;
+    private Genre sciFi;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tolkien = Author.builder().id(1L).name("J.R.R. Tolkien").build();
+        herbert = Author.builder().id(2L).name("Frank Herbert").build();
+        fantasy = Genre.builder().id(1L).name("Fantasy").build();
+        sciFi = Genre.builder().id(2L).name("Science Fiction").build();
+
+        when(authorRepository.findAll()).thenReturn(List.of(tolkien, herbert));
+        when(genreRepository.findAll()).thenReturn(List.of(fantasy, sciFi));
+        when(bookRepository.streamSuggestibleBooks()).thenReturn(Stream.of(
+                new SuggestibleBook(1L, "The Hobbit", 5, 1L, 1L),
+                new SuggestibleBook(2L, "The Fellowship of the Ring", 12, 1L, 1L),
+                new SuggestibleBook(3L, "Dune", 40, 2L, 2L),
+                new SuggestibleBook(4L, "The Two Towers", 0, 1L, 1L)));
+
+        index = new SuggestIndex(bookRepository, authorRepository, genreRepository, transactionManager, true, 3);
+        index.rebuild();
+    }
+
+    @Test
+    void suggest_CompletesAnyWordByWeight() {
+        assertTrue(index.isActive());
+        assertEquals(List.of("The Fellowship of the Ring", "The Hobbit", "The Two Towers"),
+                texts(index.suggest("the", 10)));
+        assertEquals(List.of("The Hobbit"), texts(index.suggest("HOB", 10)));
+        assertEquals(List.of("The Fellowship of the Ring"), texts(index.suggest("of the r", 10)));
+        assertEquals(List.of(), texts(index.suggest("xyz", 10)));
+        assertEquals(List.of(), texts(index.suggest("  ", 10)));
+    }
+
+    @Test
+    void suggest_WeighsAuthorsAndGenresByBooks() {
+        assertEquals(List.of(new Suggestion(SuggestIndex.AUTHOR, 1L, "J.R.R. Tolkien", 3)),
+                index.suggest("tolk", 10));
+        assertEquals(List.of("The Fellowship of the Ring", "Fantasy", "Frank Herbert"), texts(index.suggest("f", 10)));
+        assertEquals(List.of("J.R.R. Tolkien"), texts(index.suggest("j.r", 10)));
+    }
+
+    @Test
+    void suggest_PrefixRunningPastABucket() {
+        index.indexBook(book(5L, "Chronicles of the Unremarkable Lighthouse Keeper", 1, tolkien, fantasy));
+        index.indexBook(book(6L, "Chronicles of the Unremarkable Lighthouse Cat", 2, tolkien, fantasy));
+
+        assertEquals(List.of("Chronicles of the Unremarkable Lighthouse Keeper"),
+                texts(index.suggest("chronicles of the unremarkable lighthouse k", 10)));
+        assertEquals(List.of("Chronicles of the Unremarkable Lighthouse Cat",
+                        "Chronicles of the Unremarkable Lighthouse Keeper"),
+                texts(index.suggest("of the unremarkable lighthouse", 10)));
+    }
+
+    @Test
+    void suggest_FullBucketsSplitAndShrink() {
+        for (long id = 10; id < 110; id++) {
+            index.indexBook(book(id, "Saga Volume " + id, (int) id, tolkien, fantasy));
+        }
+        assertEquals(List.of("Saga Volume 109", "Saga Volume 108", "Saga Volume 107"),
+                texts(index.suggest("saga vol", 10)));
+        assertEquals(List.of("Saga Volume 42"), texts(index.suggest("volume 42", 10)));
+        assertEquals(List.of("Saga Volume 29", "Saga Volume 28", "Saga Volume 27"), texts(index.suggest("2", 10)));
+
+        for (long id = 12; id < 110; id++) {
+            index.removeBook(id);
+        }
+        index.updateStock(10L, 500);
+        assertEquals(List.of("Saga Volume 10", "Saga Volume 11"), texts(index.suggest("saga", 10)));
+        assertEquals(List.of("Saga Volume 11"), texts(index.suggest("volume 11", 10)));
+        assertEquals(List.of(), texts(index.suggest("volume 42", 10)));
+    }
+
+    @Test
+    void writes_UpdateWeightsAndTexts() {
+        index.updateStock(4L, 100);
+        assertEquals(List.of("The Two Towers", "The Fellowship of the Ring", "The Hobbit"),
+                texts(index.suggest("the", 10)));
+
+        index.indexBook(book(3L, "Dune Messiah", 40, tolkien, fantasy));
+        assertEquals(List.of("Dune Messiah"), texts(index.suggest("dune", 10)));
+        assertEquals(4, index.suggest("tolkien", 1).get(0).weight());
+        assertEquals(0, index.suggest("frank", 1).get(0).weight());
+
+        index.removeBook(2L);
+        assertEquals(List.of(), texts(index.suggest("fellow", 10)));
+        assertEquals(3, index.suggest("fantasy", 1).get(0).weight());
+
+        index.indexAuthor(Author.builder().id(2L).name("Brian Herbert").build());
+        assertEquals(List.of("Brian Herbert"), texts(index.suggest("herb", 10)));
+        assertEquals(List.of(), texts(index.suggest("frank", 10)));
+    }
+
+    @Test
+    void removeAuthorAndGenre_DropTheirBooks() {
+        index.removeGenre(2L);
+        assertEquals(List.of(), texts(index.suggest("dune", 10)));
+        assertEquals(List.of(), texts(index.suggest("science", 10)));
+        assertEquals(0, index.suggest("herbert", 1).get(0).weight());
+
+        index.removeAuthor(1L);
+        assertEquals(List.of(), texts(index.suggest("the", 10)));
+        assertEquals(0, index.suggest("fantasy", 1).get(0).weight());
+    }
+
+    @Test
+    void suggest_LimitIsCappedAtTopK() {
+        assertEquals(1, index.suggest("the", 1).size());
+        assertEquals(3, index.suggest("t", 50).size());
+    }
+
+    @Test
+    void rebuild_AppliesWriteMadeWhileBuilding() throws InterruptedException {
+        WriteDuringBuild write = new WriteDuringBuild(() -> index.indexBook(
+                book(5L, "The Silmarillion", 7, tolkien, fantasy)));
+        when(bookRepository.streamSuggestibleBooks()).thenReturn(write.rows(
+                new SuggestibleBook(1L, "The Hobbit", 5, 1L, 1L),
+                new SuggestibleBook(3L, "Dune", 40, 2L, 2L)));
+
+        index.rebuild();
+        write.await();
+
+        assertEquals(List.of("The Silmarillion"), texts(index.suggest("silm", 10)));
+        assertEquals(2, index.suggest("tolk", 1).get(0).weight());
+    }
+
+    @Test
+    void disabled_NeverBecomesActive() {
+        SuggestIndex disabled = new SuggestIndex(bookRepository, authorRepository, genreRepository,
+                transactionManager, false, 3);
+        disabled.rebuild();
+
+        assertFalse(disabled.isActive());
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+
+    private static Book book(Long id, String title, int quantity, Author author, Genre genre) {
+        return Book.builder()
+                .id(id)
+                .title(title)
+                .price(BigDecimal.TEN)
+                .quantity(quantity)
+                .author(author)
+                .genre(genre)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.bookstore.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TrigramsTest {
+
+    @Test
+    void of_ShortText_HasNoTrigrams() {
+        assertEquals(0, Trigrams.of("ab").length);
+        assertEquals(0, Trigrams.of(null).length);
+    }
+
+    @Test
+    void of_IsCaseInsensitiveAndDistinct() {
+        assertArrayEquals(Trigrams.of("aaaa"), Trigrams.of("AAA"));
+        assertEquals(1, Trigrams.of("aaaa").length);
+        assertEquals(3, Trigrams.of("Dune!").length);
+    }
+
+    @Test
+    void of_KeepsAccentedCharactersDistinct() {
+        assertNotEquals(Trigrams.of("afe")[0], Trigrams.of("afé")[0]);
+    }
+
+    @Test
+    void spread_KeepsFirstAndLastTrigram() {
+        long[] grams = {1, 2, 3, 4, 5, 6, 7};
+
+        assertArrayEquals(new long[]{1, 3, 5, 7}, Trigrams.spread(grams, 4));
+        assertArrayEquals(new long[]{1, 2}, Trigrams.spread(new long[]{1, 2}, 4));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.bookstore.search;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Makes one index write while a rebuild is streaming books: the write starts on another thread when the first row is
+ * read, and the stream goes on once that thread blocks or has finished.
+ */
+final class WriteDuringBuild {
+
+    private final Runnable write;
+    private Thread writer;
+
+    WriteDuringBuild(Runnable write) {
+        this.write = write;
+    }
+
+    // The rows for the mocked book stream of the rebuild
+    @SafeVarargs
+    final <T> Stream<T> rows(T... rows) {
+        return Stream.of(rows).peek(row -> startWrite());
+    }
+
+    void await() throws InterruptedException {
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(writer.isAlive(), "Write still blocked after the rebuild");
+    }
+
+    private void startWrite() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(write, "write-during-build");
+        writer.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (writer.getState() != Thread.State.WAITING && writer.getState() != Thread.State.TERMINATED
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.bookstore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, Object> flight = new SingleFlight<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void load_ConcurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> results = concurrently(() -> flight.load("key", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return new Object();
+        }), release);
+
+        assertEquals(1, loads.get());
+        results.forEach(result -> assertSame(results.get(0), result));
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void load_ConcurrentCallersShareTheFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> results = concurrently(() -> {
+            try {
+                return flight.load("key", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    throw new IllegalStateException("boom");
+                });
+            } catch (IllegalStateException ex) {
+                return ex;
+            }
+        }, release);
+
+        assertEquals(1, loads.get());
+        results.forEach(result -> assertTrue(result instanceof IllegalStateException));
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void load_ReturnedLoadIsNotReused() {
+        assertEquals(1, flight.load("key", loads::incrementAndGet));
+        assertEquals(2, flight.load("key", loads::incrementAndGet));
+        assertEquals(3, flight.load("other", loads::incrementAndGet));
+        assertThrows(IllegalStateException.class, () -> flight.load("key", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(4, flight.load("key", loads::incrementAndGet));
+    }
+
+    // Starts the callers, releases the load once all of them are parked on it, and collects their results
+    private List<Object> concurrently(Callable<Object> call, CountDownLatch release)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Thread> threads = new ArrayList<>();
+        List<Future<Object>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    synchronized (threads) {
+                        threads.add(Thread.currentThread());
+                    }
+                    return call.call();
+                }));
+            }
+            awaitParked(threads);
+            release.countDown();
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitParked(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            synchronized (threads) {
+                if (threads.size() == CALLERS
+                        && threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+                    return;
+                }
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Callers did not all wait on the load");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -1,20 +1,33 @@
 package com.example.bookstore.service.impl;
 
+import com.example.bookstore.cache.AuthorCache;
+import com.example.bookstore.cache.CatalogVersions;
 import com.example.bookstore.domain.Author;
+import com.example.bookstore.dto.DeleteResult;
 import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.service.Pagination;
+import com.example.bookstore.search.BookBitmapIndex;
+import com.example.bookstore.search.BookPriceIndex;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.SuggestIndex;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -24,6 +37,27 @@ class AuthorServiceImplTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookSearchIndex searchIndex;
+
+    @Mock
+    private BookBitmapIndex bitmapIndex;
+
+    @Mock
+    private BookPriceIndex priceIndex;
+
+    @Mock
+    private SuggestIndex suggestIndex;
+
+    @Mock
+    private AuthorCache authorCache;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
     @InjectMocks
     private AuthorServiceImpl authorService;
 
@@ -41,18 +75,32 @@ class AuthorServiceImplTest {
         Author created = authorService.create(author);
         assertEquals("Author Name", created.getName());
         verify(authorRepository, times(1)).save(author);
+        verify(searchIndex, times(1)).indexAuthor(author);
     }
 
     @Test
     void getById_Success() {
-        when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
+        when(authorCache.findById(1L)).thenReturn(Optional.of(author));
         Author found = authorService.getById(1L);
         assertEquals(author.getName(), found.getName());
     }
 
+    @Test
+    void getById_ReturnsCopyOfCachedInstance() {
+        when(authorCache.findById(1L)).thenReturn(Optional.of(author));
+
+        Author found = authorService.getById(1L);
+        found.setName("Changed by the caller");
+
+        assertNotSame(author, found);
+        assertEquals(author.getId(), found.getId());
+        assertEquals(author.getVersion(), found.getVersion());
+        assertNotEquals("Changed by the caller", authorService.getById(1L).getName());
+    }
+
     @Test
     void getById_NotFound_ThrowsException() {
-        when(authorRepository.findById(2L)).thenReturn(Optional.empty());
+        when(authorCache.findById(2L)).thenReturn(Optional.empty());
         EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
                 () -> authorService.getById(2L));
         assertEquals("Author not found with id: 2", ex.getMessage());
@@ -60,26 +108,42 @@ class AuthorServiceImplTest {
 
     @Test
     void getAllAuthors() {
-        when(authorRepository.findAll()).thenReturn(List.of(author));
-        List<Author> list = authorService.getAll();
+        when(authorRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(Pagination.DEFAULT_LIMIT)))
+                .thenReturn(List.of(author));
+        List<Author> list = authorService.getAll(null, null);
         assertEquals(1, list.size());
     }
 
+    @Test
+    void getAllAuthors_AfterCursor_CapsLimit() {
+        when(authorRepository.findByIdGreaterThanOrderByIdAsc(7L, Limit.of(Pagination.MAX_LIMIT)))
+                .thenReturn(List.of());
+        List<Author> list = authorService.getAll(7L, 500);
+        assertEquals(0, list.size());
+    }
+
     @Test
     void updateAuthor_Success() {
         Author updated = Author.builder().name("Updated Name").build();
         when(authorRepository.findById(1L)).thenReturn(Optional.of(author));
         when(authorRepository.save(any(Author.class))).thenReturn(updated);
 
-        Author result = authorService.update(1L, updated);
+        Author result = authorService.update(1L, updated, null);
         assertEquals("Updated Name", result.getName());
+        verify(authorCache, times(1)).invalidate(1L);
     }
 
     @Test
     void deleteAuthor_Success() {
         when(authorRepository.existsById(1L)).thenReturn(true);
-        authorService.delete(1L);
-        verify(authorRepository, times(1)).deleteById(1L);
+        when(bookRepository.deleteByAuthorId(1L)).thenReturn(3);
+        DeleteResult result = authorService.delete(1L);
+        assertEquals(new DeleteResult(1L, 3), result);
+        verify(authorRepository, times(1)).deleteRowById(1L);
+        verify(authorRepository, never()).deleteById(any());
+        verify(authorCache, times(1)).invalidate(1L);
+        verify(searchIndex, times(1)).removeAuthor(1L);
+        verify(bitmapIndex, times(1)).removeAuthor(1L);
     }
 
     @Test
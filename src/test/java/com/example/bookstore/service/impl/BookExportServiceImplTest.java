@@ -0,0 +1,115 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.service.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookExportServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private BookExportServiceImpl exportService;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        exportService = new BookExportServiceImpl(bookRepository, entityManager, new ObjectMapper());
+
+        book = Book.builder()
+                .id(1L)
+                .title("Dune, Messiah")
+                .price(new BigDecimal("12.50"))
+                .quantity(3)
+                .author(Author.builder().id(2L).name("Frank \"F.\" Herbert").build())
+                .genre(Genre.builder().id(3L).name("Sci-Fi").build())
+                .build();
+    }
+
+    @Test
+    void exportCsv_EscapesFields() throws Exception {
+        when(bookRepository.streamAll()).thenReturn(Stream.of(book));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(ExportFormat.CSV, out);
+
+        assertEquals(1, rows);
+        assertEquals("id,title,price,quantity,author_id,author_name,genre_id,genre_name\n"
+                        + "1,\"Dune, Messiah\",12.50,3,2,\"Frank \"\"F.\"\" Herbert\",3,Sci-Fi\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    void exportNdjson_WritesOneObjectPerLine() throws Exception {
+        when(bookRepository.streamAll()).thenReturn(Stream.of(book, book));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"title\":\"Dune, Messiah\""));
+    }
+
+    @Test
+    void exportNdjson_FlushesPerChunkNotPerRow() throws Exception {
+        int total = BookExportServiceImpl.CHUNK_SIZE * 2 + 1;
+        when(bookRepository.streamAll()).thenReturn(IntStream.range(0, total).mapToObj(i -> book));
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+
+        long rows = exportService.export(ExportFormat.NDJSON, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertEquals(total, rows);
+        assertEquals(total, body.split("\n").length);
+        assertTrue(body.endsWith("}\n"));
+        // Two full chunks and the tail
+        assertEquals(3, flushes.get());
+    }
+
+    @Test
+    void export_ClearsPersistenceContextPerChunk() throws Exception {
+        int total = BookExportServiceImpl.CHUNK_SIZE * 2 + 1;
+        when(bookRepository.streamAll()).thenReturn(IntStream.range(0, total).mapToObj(i -> book));
+
+        long rows = exportService.export(ExportFormat.CSV, new ByteArrayOutputStream());
+
+        assertEquals(total, rows);
+        verify(entityManager, times(2)).clear();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.cache.SearchResultCache;
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.dto.SearchFacets;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookBitmapIndex;
+import com.example.bookstore.search.BookPriceIndex;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.service.BookFilter;
+import com.example.bookstore.service.BookSort;
+import com.example.bookstore.sql.StatementCountExtension;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookFetchPlanTest {
+
+    private static final int BOOKS = 40;
+
+    @Autowired
+    private BookServiceImpl bookService;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private SearchResultCache searchCache;
+
+    @Autowired
+    private BookBitmapIndex bitmapIndex;
+
+    @Autowired
+    private BookPriceIndex priceIndex;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @RegisterExtension
+    final StatementCountExtension statements = new StatementCountExtension();
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+
+        // A distinct author and genre per book is the worst case for per-row association loading
+        for (int i = 0; i < BOOKS; i++) {
+            Author author = authorRepository.save(Author.builder().name("Author " + i).build());
+            Genre genre = genreRepository.save(Genre.builder().name("Genre " + i).build());
+            bookRepository.save(Book.builder()
+                    .title("Book " + i)
+                    .price(BigDecimal.valueOf(i + 1))
+                    .quantity(i)
+                    .author(author)
+                    .genre(genre)
+                    .build());
+        }
+        searchIndex.rebuild();
+        searchCache.invalidateAll();
+        bitmapIndex.rebuild();
+        priceIndex.rebuild();
+    }
+
+    @Test
+    void getAll_StatementCountDoesNotGrowWithPageSize() {
+        for (BookSort sort : BookSort.values()) {
+            long small = statements(() -> bookService.getAll(null, 5, sort));
+            long large = statements(() -> bookService.getAll(null, BOOKS, sort));
+
+            assertEquals(1, small, sort.name());
+            assertEquals(small, large, sort.name());
+        }
+    }
+
+    @Test
+    void getAll_WithCursor_UsesOneStatementForCursorAndOneForPage() {
+        Long after = bookService.getAll(null, 1, BookSort.TITLE).get(0).id();
+
+        assertEquals(2, statements(() -> bookService.getAll(after, BOOKS, BookSort.TITLE)));
+    }
+
+    @Test
+    void getById_AndSearch_UseOneStatement() {
+        Long id = bookService.getAll(null, 1, BookSort.ID).get(0).id();
+
+        assertEquals(1, statements(() -> List.of(bookService.getById(id))));
+        assertEquals(1, statements(() -> bookService.search("book", null, null)));
+        assertEquals(1, statements(() -> bookService.searchDatabase("book", null, null)));
+    }
+
+    @Test
+    void facets_DatabaseMatchesIndexInOneStatement() {
+        SearchFacets fromIndex = bookService.facets("book 1", null, null);
+
+        statements.reset();
+        SearchFacets fromDatabase = bookService.facetsDatabase("book 1", null, null).toFacets(20);
+        statements.assertCount(1);
+
+        assertEquals(11, fromIndex.total());
+        assertEquals(fromIndex, fromDatabase);
+    }
+
+    @Test
+    void filter_BitmapsMatchDatabaseInOneStatement() {
+        List<BookView> page = bookService.getAll(null, BOOKS, BookSort.ID);
+        Set<Long> genreIds = Set.of(page.get(0).genre().id(), page.get(5).genre().id(), page.get(9).genre().id());
+        Set<Long> authorIds = Set.of(page.get(0).author().id(), page.get(9).author().id());
+        BookFilter filter = new BookFilter(genreIds, authorIds, true);
+
+        List<BookView> fromBitmaps = bookService.filter(filter, null, BOOKS);
+        assertEquals(1, statements(() -> bookService.filter(filter, null, BOOKS)));
+        assertEquals(1, statements(() -> bookService.filterDatabase(filter, 0L, BOOKS)));
+
+        // Book 0 is out of stock, book 5 matches no author
+        assertEquals(List.of(page.get(9).id()), fromBitmaps.stream().map(BookView::id).toList());
+        assertEquals(fromBitmaps, bookService.filterDatabase(filter, 0L, BOOKS));
+    }
+
+    @Test
+    void getByPrice_IndexMatchesDatabase() {
+        BigDecimal min = new BigDecimal("5.50");
+        BigDecimal max = BigDecimal.valueOf(30);
+        List<BookView> fromIndex = bookService.getByPrice(min, max, null, 10);
+        Long after = fromIndex.get(fromIndex.size() - 1).id();
+
+        assertEquals(1, statements(() -> bookService.getByPrice(min, max, null, 10)));
+        assertEquals(2, statements(() -> bookService.getByPrice(min, max, after, BOOKS)));
+
+        assertEquals(fromIndex, bookService.priceRangeDatabase(min, max, null, null, 10));
+        assertEquals(BigDecimal.valueOf(6), fromIndex.get(0).price().stripTrailingZeros());
+        assertEquals(bookService.priceRangeDatabase(min, max, fromIndex.get(9).price(), after, BOOKS),
+                bookService.getByPrice(min, max, after, BOOKS));
+    }
+
+    private long statements(Supplier<List<?>> read) {
+        statements.reset();
+        List<?> rows = read.get();
+        long count = statements.count();
+
+        assertTrue(!rows.isEmpty());
+        for (Object row : rows) {
+            if (row instanceof Book book) {
+                assertTrue(Hibernate.isInitialized(book.getAuthor()), "author of book " + book.getId());
+                assertTrue(Hibernate.isInitialized(book.getGenre()), "genre of book " + book.getId());
+            } else {
+                assertNotNull(((BookView) row).author().name());
+            }
+        }
+        assertEquals(count, statements.count(), () -> "lazy loads after the read: " + statements.shapes());
+        return count;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.dto.Suggestion;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookBitmapIndex;
+import com.example.bookstore.search.BookPriceIndex;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.SuggestIndex;
+import com.example.bookstore.service.BookFilter;
+import com.example.bookstore.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Index changes of a write wait for its commit: an update that fails at flush leaves every index as it was.
+ */
+@SpringBootTest
+class BookIndexRollbackTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private BookBitmapIndex bitmapIndex;
+
+    @Autowired
+    private BookPriceIndex priceIndex;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Author author;
+    private Genre genre;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+        author = authorRepository.save(Author.builder().name("Steady Author").build());
+        genre = genreRepository.save(Genre.builder().name("Steady Genre").build());
+        book = bookRepository.save(Book.builder()
+                .title("Original Title")
+                .price(BigDecimal.TEN)
+                .quantity(5)
+                .author(author)
+                .genre(genre)
+                .build());
+        searchIndex.rebuild();
+        bitmapIndex.rebuild();
+        priceIndex.rebuild();
+        suggestIndex.rebuild();
+    }
+
+    @Test
+    void update_VersionConflictAtCommitLeavesIndexesUnchanged() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Book change = Book.builder().title("Renamed Title").price(BigDecimal.ONE).quantity(0)
+                .author(author).genre(genre).build();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> outer.executeWithoutResult(status -> {
+            bookService.update(book.getId(), change, null);
+            // Another writer commits first, so the flush of this update matches no row
+            concurrent.executeWithoutResult(inner -> jdbcTemplate.update(
+                    "update books set version = version + 1 where id = ?", book.getId()));
+        }));
+
+        assertEquals(List.of(book.getId()), searchIndex.search("original", null, null));
+        assertEquals(List.of(), searchIndex.search("renamed", null, null));
+        assertEquals(List.of(book.getId()),
+                bitmapIndex.page(new BookFilter(Set.of(), Set.of(), true), 0, 10));
+        long tenCents = BookPriceIndex.cents(BigDecimal.TEN);
+        assertEquals(1, priceIndex.page(tenCents, tenCents, Long.MIN_VALUE, Long.MIN_VALUE, 10).length);
+        assertEquals(List.of("Original Title"),
+                suggestIndex.suggest("original", 10).stream().map(Suggestion::text).toList());
+        assertEquals(List.of(), suggestIndex.suggest("renamed", 10));
+        assertEquals(List.of("Original Title"),
+                bookService.search("title", null, null).stream().map(BookView::title).toList());
+    }
+
+    @Test
+    void update_CommittedChangeReachesIndexes() {
+        Book change = Book.builder().title("Renamed Title").price(BigDecimal.ONE).quantity(0)
+                .author(author).genre(genre).build();
+
+        bookService.update(book.getId(), change, null);
+
+        assertEquals(List.of(), searchIndex.search("original", null, null));
+        assertEquals(List.of(book.getId()), searchIndex.search("renamed", null, null));
+        assertEquals(List.of(), bitmapIndex.page(new BookFilter(Set.of(), Set.of(), true), 0, 10));
+        assertEquals(List.of("Renamed Title"),
+                suggestIndex.suggest("renamed", 10).stream().map(Suggestion::text).toList());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.service.BookService;
+import com.example.bookstore.service.InsufficientStockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class BookPurchaseConcurrencyTest {
+
+    private static final int STOCK = 500;
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Test
+    void concurrentPurchasesOfOneBookNeverOversell() throws Exception {
+        Author author = authorRepository.save(Author.builder().name("Hot Author").build());
+        Genre genre = genreRepository.save(Genre.builder().name("Hot Genre").build());
+        Long id = bookRepository.save(Book.builder()
+                .title("Flash Sale")
+                .price(BigDecimal.TEN)
+                .quantity(STOCK)
+                .author(author)
+                .genre(genre)
+                .build()).getId();
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        sold.addAndGet(bookService.purchase(id, 1).purchased());
+                    } catch (InsufficientStockException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        assertEquals(STOCK, sold.get());
+        assertEquals(attempts - STOCK, rejected.get());
+        assertEquals(0, bookRepository.findQuantityById(id).orElseThrow());
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.cache.SearchResultCache;
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.service.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.mockito.stubbing.Answer;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Concurrent identical reads reach the database once. The first load is held until every caller waits on it.
+ */
+@SpringBootTest
+class BookReadCoalescingTest {
+
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private BookService bookService;
+
+    @SpyBean
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private SearchResultCache searchCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Answer<?> realMethod;
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+        Author author = authorRepository.save(Author.builder().name("Viral Author").build());
+        Genre genre = genreRepository.save(Genre.builder().name("Viral Genre").build());
+        id = bookRepository.save(Book.builder()
+                .title("Overnight Sensation")
+                .price(BigDecimal.TEN)
+                .quantity(100)
+                .author(author)
+                .genre(genre)
+                .build()).getId();
+        searchIndex.rebuild();
+        searchCache.invalidateAll();
+        reset(bookRepository);
+        // The repository is an interface proxy, so held calls go on through the answer that delegates to it
+        realMethod = mockingDetails(bookRepository).getMockCreationSettings().getDefaultAnswer();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getById_ParallelCallsRunOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return realMethod.answer(invocation);
+        }).when(bookRepository).findWithAuthorAndGenreById(id);
+
+        List<Book> books = concurrently(() -> bookService.getById(id), release);
+
+        verify(bookRepository, times(1)).findWithAuthorAndGenreById(id);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(CALLERS, distinctInstances(books));
+        assertEquals(CALLERS, distinctInstances(books.stream().map(Book::getAuthor).toList()));
+        books.get(0).setTitle("Changed by one caller");
+        books.get(0).getAuthor().setName("Changed by one caller");
+        books.subList(1, CALLERS).forEach(book -> {
+            assertEquals("Overnight Sensation", book.getTitle());
+            assertEquals("Viral Author", book.getAuthor().getName());
+            assertEquals(books.get(0).getVersion(), book.getVersion());
+        });
+    }
+
+    @Test
+    void search_ParallelCallsRunOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return realMethod.answer(invocation);
+        }).when(bookRepository).findViewsByIdIn(any());
+
+        List<List<BookView>> results = concurrently(() -> bookService.search("overnight", null, null), release);
+
+        verify(bookRepository, times(1)).findViewsByIdIn(any());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        results.forEach(result -> assertEquals(List.of(id), result.stream().map(BookView::id).toList()));
+    }
+
+    // Starts the callers, lets the held load go once all of them wait, and collects their results
+    private <T> List<T> concurrently(Callable<T> call, CountDownLatch release) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Thread> threads = new ArrayList<>();
+        List<Future<T>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    synchronized (threads) {
+                        threads.add(Thread.currentThread());
+                    }
+                    return call.call();
+                }));
+            }
+            awaitWaiting(threads);
+            statistics.clear();
+            release.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int distinctInstances(List<?> objects) {
+        Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        instances.addAll(objects);
+        return instances.size();
+    }
+
+    private static void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            synchronized (threads) {
+                if (threads.size() == CALLERS
+                        && threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+                    return;
+                }
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Callers did not all wait on the first load");
+    }
+}
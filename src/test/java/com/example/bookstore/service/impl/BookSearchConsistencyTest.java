@@ -0,0 +1,119 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.cache.SearchResultCache;
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookSearchConsistencyTest {
+
+    private static final String[] TITLE_TERMS = {
+        null, "", "the", "THE", "hobbit", "obbi", "ring", "of the", "f t", "e, t", "'s", "dune", "2", "zzz", " "
+    };
+    private static final String[] AUTHOR_TERMS = {null, "tolkien", "r.r", "herbert", "k. le", "an", "nobody"};
+    private static final String[] GENRE_TERMS = {null, "fantasy", "sci", "fi", "science fiction", "-"};
+
+    @Autowired
+    private BookServiceImpl bookService;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private SearchResultCache searchCache;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+
+        Author tolkien = authorRepository.save(Author.builder().name("J.R.R. Tolkien").build());
+        Author herbert = authorRepository.save(Author.builder().name("Frank Herbert").build());
+        Author leGuin = authorRepository.save(Author.builder().name("Ursula K. Le Guin").build());
+        Genre fantasy = genreRepository.save(Genre.builder().name("Fantasy").build());
+        Genre sciFi = genreRepository.save(Genre.builder().name("Sci-Fi").build());
+        Genre scienceFiction = genreRepository.save(Genre.builder().name("Science Fiction").build());
+
+        save("The Hobbit", tolkien, fantasy);
+        save("The Fellowship of the Ring", tolkien, fantasy);
+        save("The Two Towers", tolkien, fantasy);
+        save("Dune", herbert, sciFi);
+        save("Dune Messiah", herbert, scienceFiction);
+        save("Children of Dune 2", herbert, scienceFiction);
+        save("A Wizard of Earthsea", leGuin, fantasy);
+        save("The Left Hand of Darkness", leGuin, scienceFiction);
+        save("Tehanu, the Last Book of Earthsea", leGuin, fantasy);
+        save("Ged's Journey", leGuin, sciFi);
+
+        searchIndex.rebuild();
+
+        searchCache.invalidateAll();
+    }
+
+    @Test
+    void indexAndDatabaseSearchReturnTheSameBooks() {
+        assertTrue(searchIndex.isActive());
+        int compared = 0;
+        for (String title : TITLE_TERMS) {
+            for (String author : AUTHOR_TERMS) {
+                for (String genre : GENRE_TERMS) {
+                    assertEquals(bookService.searchDatabase(title, author, genre),
+                            bookService.search(title, author, genre),
+                            () -> "title=" + title + ", author=" + author + ", genre=" + genre);
+                    compared++;
+                }
+            }
+        }
+        assertEquals(TITLE_TERMS.length * AUTHOR_TERMS.length * GENRE_TERMS.length, compared);
+    }
+
+    @Test
+    void indexFollowsServiceWrites() {
+        Book dune = bookService.getById(bookService.searchDatabase("dune", null, "sci-fi").get(0).id());
+        dune.setTitle("Dune (Anniversary Edition)");
+        bookService.update(dune.getId(), dune, null);
+
+        assertEquals(bookService.searchDatabase("anniversary", null, null),
+                bookService.search("anniversary", null, null));
+        assertEquals(1, bookService.search("anniversary", null, null).size());
+
+        bookService.delete(dune.getId());
+
+        assertEquals(List.of(), bookService.search("anniversary", null, null));
+    }
+
+    private void save(String title, Author author, Genre genre) {
+        bookRepository.save(Book.builder()
+                .title(title)
+                .price(BigDecimal.TEN)
+                .quantity(1)
+                .author(author)
+                .genre(genre)
+                .build());
+    }
+}
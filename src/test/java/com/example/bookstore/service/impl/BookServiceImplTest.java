@@ -1,26 +1,58 @@
 package com.example.bookstore.service.impl;
 
+import com.example.bookstore.cache.AuthorCache;
+import com.example.bookstore.cache.CatalogVersions;
+import com.example.bookstore.cache.GenreCache;
+import com.example.bookstore.cache.SearchResultCache;
 import com.example.bookstore.domain.Author;
 import com.example.bookstore.domain.Book;
 import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.dto.BulkCreateResult;
+import com.example.bookstore.dto.BulkItemError;
+import com.example.bookstore.dto.PurchaseResult;
 import com.example.bookstore.repository.AuthorRepository;
 import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.service.BookSort;
+import com.example.bookstore.service.InsufficientStockException;
+import com.example.bookstore.service.Pagination;
+import com.example.bookstore.service.VersionConflictException;
+import com.example.bookstore.search.BookBitmapIndex;
+import com.example.bookstore.search.BookPriceIndex;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.BookTrigramIndex;
+import com.example.bookstore.search.FilterableBook;
+import com.example.bookstore.search.PriceBuckets;
+import com.example.bookstore.search.SearchMetrics;
+import com.example.bookstore.search.SearchMode;
+import com.example.bookstore.search.SuggestIndex;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -37,6 +69,45 @@ class BookServiceImplTest {
     @Mock
     private GenreRepository genreRepository;
 
+    @Mock
+    private AuthorCache authorCache;
+
+    @Mock
+    private GenreCache genreCache;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private BookSearchIndex searchIndex;
+
+    @Mock
+    private BookBitmapIndex bitmapIndex;
+
+    @Mock
+    private BookPriceIndex priceIndex;
+
+    @Mock
+    private SuggestIndex suggestIndex;
+
+    @Mock
+    private BookTrigramIndex trigramIndex;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Spy
+    private SearchResultCache searchCache = new SearchResultCache(new CatalogVersions(), 16, 16);
+
+    @Mock
+    private SearchMetrics searchMetrics;
+
+    @Spy
+    private PriceBuckets priceBuckets = new PriceBuckets(List.of(BigDecimal.TEN));
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -70,8 +141,8 @@ class BookServiceImplTest {
 
     @Test
     void createBook_Success() {
-        when(authorRepository.findById(author.getId())).thenReturn(Optional.of(author));
-        when(genreRepository.findById(genre.getId())).thenReturn(Optional.of(genre));
+        when(authorCache.findById(author.getId())).thenReturn(Optional.of(author));
+        when(genreCache.findById(genre.getId())).thenReturn(Optional.of(genre));
         when(bookRepository.save(any(Book.class))).thenReturn(book);
 
         Book created = bookService.create(book);
@@ -79,12 +150,14 @@ class BookServiceImplTest {
         assertNotNull(created);
         assertEquals("The Hobbit", created.getTitle());
         verify(bookRepository, times(1)).save(book);
+        verify(trigramIndex, times(1)).indexNew(book);
+        verify(searchIndex, times(1)).indexBook(book);
     }
 
     @Test
     void createBook_InvalidAuthor_ThrowsException() {
         book.setAuthor(Author.builder().id(999L).build());
-        when(authorRepository.findById(999L)).thenReturn(Optional.empty());
+        when(authorCache.findById(999L)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> bookService.create(book));
@@ -96,8 +169,8 @@ class BookServiceImplTest {
     @Test
     void createBook_InvalidGenre_ThrowsException() {
         book.setGenre(Genre.builder().id(999L).build());
-        when(authorRepository.findById(author.getId())).thenReturn(Optional.of(author));
-        when(genreRepository.findById(999L)).thenReturn(Optional.empty());
+        when(authorCache.findById(author.getId())).thenReturn(Optional.of(author));
+        when(genreCache.findById(999L)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> bookService.create(book));
@@ -108,7 +181,7 @@ class BookServiceImplTest {
 
     @Test
     void getById_Success() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.findWithAuthorAndGenreById(1L)).thenReturn(Optional.of(book));
 
         Book found = bookService.getById(1L);
 
@@ -118,7 +191,7 @@ class BookServiceImplTest {
 
     @Test
     void getById_NotFound_ThrowsException() {
-        when(bookRepository.findById(2L)).thenReturn(Optional.empty());
+        when(bookRepository.findWithAuthorAndGenreById(2L)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> bookService.getById(2L));
@@ -136,12 +209,12 @@ class BookServiceImplTest {
                 .genre(genre)
                 .build();
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(authorRepository.findById(author.getId())).thenReturn(Optional.of(author));
-        when(genreRepository.findById(genre.getId())).thenReturn(Optional.of(genre));
+        when(bookRepository.findWithAuthorAndGenreById(1L)).thenReturn(Optional.of(book));
+        when(authorCache.findById(author.getId())).thenReturn(Optional.of(author));
+        when(genreCache.findById(genre.getId())).thenReturn(Optional.of(genre));
         when(bookRepository.save(any(Book.class))).thenReturn(updatedBook);
 
-        Book result = bookService.update(1L, updatedBook);
+        Book result = bookService.update(1L, updatedBook, null);
 
         assertEquals("The Hobbit: Updated", result.getTitle());
         assertEquals(BigDecimal.valueOf(25), result.getPrice());
@@ -149,18 +222,33 @@ class BookServiceImplTest {
         verify(bookRepository, times(1)).save(book);
     }
 
+    @Test
+    void updateBook_StaleVersion_ThrowsException() {
+        book.setVersion(4);
+        when(bookRepository.findWithAuthorAndGenreById(1L)).thenReturn(Optional.of(book));
+
+        VersionConflictException exception = assertThrows(VersionConflictException.class,
+                () -> bookService.update(1L, book, 3L));
+
+        assertEquals("Book 1 has been modified, current version is 4", exception.getMessage());
+        verify(bookRepository, never()).save(any());
+    }
+
     @Test
     void deleteBook_Success() {
-        when(bookRepository.existsById(1L)).thenReturn(true);
+        FilterableBook filterable = new FilterableBook(1L, 1L, 1L, 10, BigDecimal.TEN);
+        when(bookRepository.findFilterableById(1L)).thenReturn(Optional.of(filterable));
 
         bookService.delete(1L);
 
         verify(bookRepository, times(1)).deleteById(1L);
+        verify(searchIndex, times(1)).removeBook(1L);
+        verify(bitmapIndex, times(1)).removeBook(filterable);
     }
 
     @Test
     void deleteBook_NotFound_ThrowsException() {
-        when(bookRepository.existsById(2L)).thenReturn(false);
+        when(bookRepository.findFilterableById(2L)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> bookService.delete(2L));
@@ -171,11 +259,202 @@ class BookServiceImplTest {
 
     @Test
     void getAllBooks_ReturnsList() {
-        when(bookRepository.findAll()).thenReturn(List.of(book));
+        when(bookRepository.findViewsByIdAfter(0L, Limit.of(Pagination.DEFAULT_LIMIT)))
+                .thenReturn(List.of(view(book)));
 
-        List<Book> books = bookService.getAll();
+        List<BookView> books = bookService.getAll(null, null, BookSort.ID);
 
         assertEquals(1, books.size());
-        assertEquals("The Hobbit", books.get(0).getTitle());
+        assertEquals("The Hobbit", books.get(0).title());
+    }
+
+    @Test
+    void getAllBooks_LimitAboveMaximum_IsCapped() {
+        when(bookRepository.findViewsByIdAfter(5L, Limit.of(Pagination.MAX_LIMIT)))
+                .thenReturn(List.of(view(book)));
+
+        List<BookView> books = bookService.getAll(5L, 10_000, BookSort.ID);
+
+        assertEquals(1, books.size());
+    }
+
+    @Test
+    void getAllBooks_NonPositiveLimit_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.getAll(null, 0, BookSort.ID));
+    }
+
+    @Test
+    void getAllBooks_SortedByTitle_SeeksPastCursor() {
+        when(bookRepository.findTitleById(1L)).thenReturn(Optional.of("The Hobbit"));
+        when(bookRepository.findViewPageByTitleAfter("The Hobbit", 1L, Limit.of(10))).thenReturn(List.of());
+
+        List<BookView> books = bookService.getAll(1L, 10, BookSort.TITLE);
+
+        assertEquals(0, books.size());
+        verify(bookRepository, times(1)).findViewPageByTitleAfter("The Hobbit", 1L, Limit.of(10));
+    }
+
+    @Test
+    void getAllBooks_SortedByTitle_FirstPage() {
+        when(bookRepository.findViewsOrderByTitle(Limit.of(10))).thenReturn(List.of(view(book)));
+
+        assertEquals(1, bookService.getAll(null, 10, BookSort.TITLE).size());
+    }
+
+    @Test
+    void getAllBooks_SortedByPrice_SeeksPastCursor() {
+        when(bookRepository.findPriceById(1L)).thenReturn(Optional.of(BigDecimal.valueOf(20)));
+        when(bookRepository.findViewPageByPriceAfter(BigDecimal.valueOf(20), 1L, Limit.of(10)))
+                .thenReturn(List.of(view(book)));
+
+        assertEquals(1, bookService.getAll(1L, 10, BookSort.PRICE).size());
+    }
+
+    @Test
+    void getAllBooks_SortedByPrice_FirstPage() {
+        when(bookRepository.findViewsOrderByPrice(Limit.of(10))).thenReturn(List.of(view(book)));
+
+        assertEquals(1, bookService.getAll(null, 10, BookSort.PRICE).size());
+    }
+
+    @Test
+    void getByPrice_FromIndex_KeepsPriceOrder() {
+        Book cheap = Book.builder().id(2L).title("Cheap").price(new BigDecimal("4.99")).quantity(1)
+                .author(author).genre(genre).build();
+        when(priceIndex.isActive()).thenReturn(true);
+        when(priceIndex.page(500, 3000, Long.MIN_VALUE, Long.MIN_VALUE, 10)).thenReturn(new long[]{2L, 1L});
+        when(bookRepository.findViewsByIdIn(List.of(2L, 1L))).thenReturn(List.of(view(book), view(cheap)));
+
+        List<BookView> books = bookService.getByPrice(new BigDecimal("4.999"), new BigDecimal("30.005"), null, 10);
+
+        assertEquals(List.of(2L, 1L), books.stream().map(BookView::id).toList());
+    }
+
+    @Test
+    void getByPrice_MinAboveMax_ThrowsException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> bookService.getByPrice(BigDecimal.TEN, BigDecimal.ONE, null, 10));
+
+        assertEquals("minPrice must not be greater than maxPrice", exception.getMessage());
+    }
+
+    @Test
+    void getAllBooks_UnknownCursor_ThrowsException() {
+        when(bookRepository.findPriceById(42L)).thenReturn(Optional.empty());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> bookService.getAll(42L, 10, BookSort.PRICE));
+
+        assertEquals("Invalid cursor, book not found with id: 42", exception.getMessage());
+    }
+
+    @Test
+    void purchase_InStock_DecrementsInOneStatement() {
+        when(bookRepository.decrementQuantity(1L, 3)).thenReturn(1);
+        when(bookRepository.findQuantityById(1L)).thenReturn(Optional.of(7));
+
+        assertEquals(new PurchaseResult(1L, 3, 7), bookService.purchase(1L, 3));
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void purchase_NotEnoughStock_ThrowsException() {
+        when(bookRepository.decrementQuantity(1L, 11)).thenReturn(0);
+        when(bookRepository.findQuantityById(1L)).thenReturn(Optional.of(10));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> bookService.purchase(1L, 11));
+
+        assertEquals("Insufficient stock for book 1: requested 11, available 10", exception.getMessage());
+    }
+
+    @Test
+    void purchase_UnknownBook_ThrowsException() {
+        when(bookRepository.decrementQuantity(2L, 1)).thenReturn(0);
+        when(bookRepository.findQuantityById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.purchase(2L, 1));
+    }
+
+    @Test
+    void purchase_NonPositiveQuantity_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.purchase(1L, 0));
+        verify(bookRepository, never()).decrementQuantity(any(), anyInt());
+    }
+
+    @Test
+    void search_IndexActive_LoadsMatchesAsViews() {
+        Book other = Book.builder().id(2L).title("The Hobbit, Annotated").author(author).genre(genre).build();
+        when(searchIndex.isActive()).thenReturn(true);
+        when(searchIndex.search("hobbit", null, null)).thenReturn(List.of(1L, 2L));
+        when(bookRepository.findViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(view(book), view(other)));
+
+        List<BookView> result = bookService.search("hobbit", null, null);
+
+        assertEquals(List.of(view(book), view(other)), result);
+        verify(searchMetrics).record(SearchMode.INDEX, 2);
+    }
+
+    @Test
+    void search_IndexActive_LoadsLargeResultsInBatches() {
+        int matches = 2 * BookServiceImpl.VIEW_BATCH_SIZE + 500;
+        List<Long> ids = LongStream.rangeClosed(1, matches).boxed().toList();
+        when(searchIndex.isActive()).thenReturn(true);
+        when(searchIndex.search("the", null, null)).thenReturn(ids);
+        when(bookRepository.findViewsByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> batch = invocation.getArgument(0);
+            assertTrue(batch.size() <= BookServiceImpl.VIEW_BATCH_SIZE);
+            return batch.stream().map(id -> view(Book.builder().id(id).title("Book " + id).author(author)
+                    .genre(genre).build())).toList();
+        });
+
+        List<BookView> result = bookService.search("the", null, null);
+
+        assertEquals(ids, result.stream().map(BookView::id).toList());
+        verify(bookRepository, times(3)).findViewsByIdIn(any());
+    }
+
+    @Test
+    void search_RepeatedQueryIsServedFromCache() {
+        when(searchIndex.isActive()).thenReturn(true);
+        when(searchIndex.search("hobbit", null, "fantasy")).thenReturn(List.of(1L));
+        when(bookRepository.findViewsByIdIn(List.of(1L))).thenReturn(List.of(view(book)));
+
+        bookService.search("hobbit", null, "Fantasy");
+        List<BookView> result = bookService.search("  HOBBIT ", " ", "fantasy");
+
+        assertEquals(List.of(view(book)), result);
+        verify(searchIndex, times(1)).search("hobbit", null, "fantasy");
+        verify(bookRepository, times(1)).findViewsByIdIn(List.of(1L));
+    }
+
+    @Test
+    void createAll_PersistsValidBooksAndReportsItemErrors() {
+        Book unknownAuthor = Book.builder().title("Orphan").price(BigDecimal.ONE).quantity(1)
+                .author(Author.builder().id(999L).build()).genre(genre).build();
+        Book blankTitle = Book.builder().title(" ").price(BigDecimal.ONE).quantity(1)
+                .author(author).genre(genre).build();
+        when(authorRepository.findExistingIds(Set.of(1L, 999L))).thenReturn(Set.of(1L));
+        when(genreRepository.findExistingIds(Set.of(1L))).thenReturn(Set.of(1L));
+        when(entityManager.getReference(eq(Author.class), any())).thenReturn(author);
+        when(entityManager.getReference(eq(Genre.class), any())).thenReturn(genre);
+
+        BulkCreateResult result = bookService.createAll(List.of(book, unknownAuthor, blankTitle));
+
+        assertEquals(3, result.requested());
+        assertEquals(1, result.created());
+        assertEquals(List.of(
+                new BulkItemError(1, "author", "Author not found with id: 999"),
+                new BulkItemError(2, "title", "Title cannot be blank")), result.errors());
+        verify(entityManager, times(1)).persist(book);
+        verify(entityManager, times(1)).flush();
+        verify(trigramIndex, times(1)).indexNew(book);
+        verify(searchIndex, times(1)).indexBook(book);
+        verify(authorCache, never()).findById(any());
+    }
+
+    private static BookView view(Book book) {
+        return new BookView(book.getId(), book.getTitle(), book.getPrice(), book.getQuantity(),
+                book.getAuthor().getId(), book.getAuthor().getName(), book.getGenre().getId(), book.getGenre().getName());
     }
-}
\ No newline at end of file
+}
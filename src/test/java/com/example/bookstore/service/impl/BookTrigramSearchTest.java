@@ -0,0 +1,115 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.BookView;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.BookTrigramRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookTrigramIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bookstore.search.mode=trigram")
+class BookTrigramSearchTest {
+
+    private static final String[] TITLE_TERMS = {"the", "HOBBIT", "ring", "of the", "une", "du", "x", "zzz"};
+
+    @Autowired
+    private BookServiceImpl bookService;
+
+    @Autowired
+    private BookTrigramIndex trigramIndex;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookTrigramRepository trigramRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    private Author author;
+    private Genre genre;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+        author = authorRepository.save(Author.builder().name("J.R.R. Tolkien").build());
+        genre = genreRepository.save(Genre.builder().name("Fantasy").build());
+    }
+
+    @Test
+    void backfill_IndexesExistingBooks() {
+        save("The Hobbit");
+        save("The Fellowship of the Ring");
+        save("Dune");
+
+        trigramIndex.backfill();
+
+        assertTrue(trigramRepository.count() > 0);
+        assertMatchesBruteForce();
+    }
+
+    @Test
+    void serviceWrites_MaintainTrigrams() {
+        Book hobbit = bookService.create(book("The Hobbit"));
+        bookService.create(book("Dune Messiah"));
+
+        hobbit.setTitle("Unfinished Tales");
+        bookService.update(hobbit.getId(), hobbit, null);
+
+        assertEquals(List.of(), bookService.search("hobbit", null, null));
+        assertEquals(1, bookService.search("tales", null, null).size());
+        assertMatchesBruteForce();
+
+        bookService.delete(hobbit.getId());
+
+        assertEquals(List.of(), bookService.search("tales", null, null));
+    }
+
+    private void assertMatchesBruteForce() {
+        List<Book> all = bookRepository.findAll();
+        for (String term : TITLE_TERMS) {
+            String needle = term.toLowerCase(Locale.ROOT);
+            List<Long> expected = all.stream()
+                    .filter(book -> book.getTitle().toLowerCase(Locale.ROOT).contains(needle))
+                    .map(Book::getId)
+                    .sorted()
+                    .toList();
+            assertEquals(expected, bookService.search(term, null, null).stream().map(BookView::id).toList(),
+                    () -> "title=" + term);
+        }
+    }
+
+    private void save(String title) {
+        bookRepository.save(book(title));
+    }
+
+    private Book book(String title) {
+        return Book.builder()
+                .title(title)
+                .price(BigDecimal.TEN)
+                .quantity(1)
+                .author(author)
+                .genre(genre)
+                .build();
+    }
+}
@@ -1,20 +1,33 @@
 package com.example.bookstore.service.impl;
 
+import com.example.bookstore.cache.CatalogVersions;
+import com.example.bookstore.cache.GenreCache;
 import com.example.bookstore.domain.Genre;
+import com.example.bookstore.dto.DeleteResult;
+import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.service.Pagination;
+import com.example.bookstore.search.BookBitmapIndex;
+import com.example.bookstore.search.BookPriceIndex;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.SuggestIndex;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -24,6 +37,27 @@ class GenreServiceImplTest {
     @Mock
     private GenreRepository genreRepository;
 
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookSearchIndex searchIndex;
+
+    @Mock
+    private BookBitmapIndex bitmapIndex;
+
+    @Mock
+    private BookPriceIndex priceIndex;
+
+    @Mock
+    private SuggestIndex suggestIndex;
+
+    @Mock
+    private GenreCache genreCache;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
     @InjectMocks
     private GenreServiceImpl genreService;
 
@@ -41,18 +75,32 @@ class GenreServiceImplTest {
         Genre created = genreService.create(genre);
         assertEquals("Fantasy", created.getName());
         verify(genreRepository, times(1)).save(genre);
+        verify(searchIndex, times(1)).indexGenre(genre);
     }
 
     @Test
     void getById_Success() {
-        when(genreRepository.findById(1L)).thenReturn(Optional.of(genre));
+        when(genreCache.findById(1L)).thenReturn(Optional.of(genre));
         Genre found = genreService.getById(1L);
         assertEquals("Fantasy", found.getName());
     }
 
+    @Test
+    void getById_ReturnsCopyOfCachedInstance() {
+        when(genreCache.findById(1L)).thenReturn(Optional.of(genre));
+
+        Genre found = genreService.getById(1L);
+        found.setName("Changed by the caller");
+
+        assertNotSame(genre, found);
+        assertEquals(genre.getId(), found.getId());
+        assertEquals(genre.getVersion(), found.getVersion());
+        assertNotEquals("Changed by the caller", genreService.getById(1L).getName());
+    }
+
     @Test
     void getById_NotFound_ThrowsException() {
-        when(genreRepository.findById(2L)).thenReturn(Optional.empty());
+        when(genreCache.findById(2L)).thenReturn(Optional.empty());
         EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
                 () -> genreService.getById(2L));
         assertEquals("Genre not found with id: 2", ex.getMessage());
@@ -60,26 +108,42 @@ class GenreServiceImplTest {
 
     @Test
     void getAllGenres() {
-        when(genreRepository.findAll()).thenReturn(List.of(genre));
-        List<Genre> list = genreService.getAll();
+        when(genreRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(Pagination.DEFAULT_LIMIT)))
+                .thenReturn(List.of(genre));
+        List<Genre> list = genreService.getAll(null, null);
         assertEquals(1, list.size());
     }
 
+    @Test
+    void getAllGenres_AfterCursor_CapsLimit() {
+        when(genreRepository.findByIdGreaterThanOrderByIdAsc(7L, Limit.of(Pagination.MAX_LIMIT)))
+                .thenReturn(List.of());
+        List<Genre> list = genreService.getAll(7L, 500);
+        assertEquals(0, list.size());
+    }
+
     @Test
     void updateGenre_Success() {
         Genre updated = Genre.builder().name("Sci-Fi").build();
         when(genreRepository.findById(1L)).thenReturn(Optional.of(genre));
         when(genreRepository.save(any(Genre.class))).thenReturn(updated);
 
-        Genre result = genreService.update(1L, updated);
+        Genre result = genreService.update(1L, updated, null);
         assertEquals("Sci-Fi", result.getName());
+        verify(genreCache, times(1)).invalidate(1L);
     }
 
     @Test
     void deleteGenre_Success() {
         when(genreRepository.existsById(1L)).thenReturn(true);
-        genreService.delete(1L);
-        verify(genreRepository, times(1)).deleteById(1L);
+        when(bookRepository.deleteByGenreId(1L)).thenReturn(3);
+        DeleteResult result = genreService.delete(1L);
+        assertEquals(new DeleteResult(1L, 3), result);
+        verify(genreRepository, times(1)).deleteRowById(1L);
+        verify(genreRepository, never()).deleteById(any());
+        verify(genreCache, times(1)).invalidate(1L);
+        verify(searchIndex, times(1)).removeGenre(1L);
+        verify(bitmapIndex, times(1)).removeGenre(1L);
     }
 
     @Test
@@ -0,0 +1,78 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.SuggestIndex;
+import com.example.bookstore.sql.StatementCountExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SuggestServiceImplTest {
+
+    @Autowired
+    private SuggestServiceImpl suggestService;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @RegisterExtension
+    final StatementCountExtension statements = new StatementCountExtension();
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+
+        List<Author> authors = authorRepository.saveAll(List.of(
+                Author.builder().name("Mary Shelley").build(),
+                Author.builder().name("Frank Herbert").build()));
+        List<Genre> genres = genreRepository.saveAll(List.of(
+                Genre.builder().name("Science Fiction").build(),
+                Genre.builder().name("Gothic Horror").build()));
+        String[] titles = {"Frankenstein", "Dune", "Dune Messiah", "Children of Dune", "The Last Man", "Heretics of Dune"};
+        for (int i = 0; i < titles.length; i++) {
+            bookRepository.save(Book.builder()
+                    .title(titles[i])
+                    .price(BigDecimal.TEN)
+                    .quantity(i * 3 % 7)
+                    .author(authors.get(i == 0 || i == 4 ? 0 : 1))
+                    .genre(genres.get(i == 0 ? 1 : 0))
+                    .build());
+        }
+        suggestIndex.rebuild();
+    }
+
+    @Test
+    void suggest_IndexMatchesDatabase() {
+        for (String prefix : List.of("d", "dune", "of d", "fr", "s", "gothic h", "the", "zz")) {
+            statements.reset();
+            List<?> fromIndex = suggestService.suggest(prefix, 5);
+            statements.assertCount(0);
+
+            assertEquals(suggestService.suggestDatabase(prefix, 5), fromIndex, prefix);
+        }
+    }
+}
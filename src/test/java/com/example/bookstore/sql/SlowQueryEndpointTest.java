@@ -0,0 +1,120 @@
+package com.example.bookstore.sql;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A zero threshold captures every statement
+@SpringBootTest(properties = {
+        "bookstore.search.mode=database",
+        "bookstore.sql.slow-query.threshold-ms=0",
+        "bookstore.sql.slow-query.explain=true"
+})
+@AutoConfigureMockMvc
+class SlowQueryEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+        Author author = authorRepository.save(Author.builder().name("Ursula K. Le Guin").build());
+        Genre genre = genreRepository.save(Genre.builder().name("Fantasy").build());
+        bookRepository.save(Book.builder().title("A Wizard of Earthsea").price(BigDecimal.TEN).quantity(3)
+                .author(author).genre(genre).build());
+        slowQueryLog.clear();
+    }
+
+    @Test
+    void slowQueries_ListsStatementsWithShapeOriginAndPlan() throws Exception {
+        mockMvc.perform(get("/api/books/search").param("title", "earthsea")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/slowqueries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.thresholdMs").value(0))
+                .andExpect(jsonPath("$.queries[0].sql", startsWith("select")))
+                .andExpect(jsonPath("$.queries[0].parameterTypes", hasItem("String")))
+                .andExpect(jsonPath("$.queries[0].rows").value(1))
+                .andExpect(jsonPath("$.queries[0].origin").value("BookServiceImpl.searchDatabase"));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (slowQueryLog.plans().containsValue(SlowQueryLog.PLAN_PENDING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertFalse(slowQueryLog.plans().isEmpty());
+        assertFalse(slowQueryLog.plans().containsValue(SlowQueryLog.PLAN_PENDING));
+        assertFalse(slowQueryLog.plans().values().stream().anyMatch(plan -> plan.startsWith("unavailable")),
+                () -> slowQueryLog.plans().toString());
+
+        mockMvc.perform(delete("/actuator/slowqueries")).andExpect(status().isNoContent());
+        mockMvc.perform(get("/actuator/slowqueries")).andExpect(jsonPath("$.queries").isEmpty());
+    }
+
+    @Test
+    void timedQueries_CountRowsUntilTheResultSetCloses() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select title from books where price > ?")) {
+            statement.setBigDecimal(1, BigDecimal.ONE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertSame(statement, resultSet.getStatement());
+                assertTrue(resultSet.next());
+                assertFalse(resultSet.next());
+                assertTrue(slowQueryLog.recent().isEmpty());
+            }
+            statement.setBigDecimal(1, BigDecimal.valueOf(100));
+            ResultSet unclosed = statement.executeQuery();
+            assertFalse(unclosed.next());
+        }
+
+        mockMvc.perform(get("/actuator/slowqueries"))
+                .andExpect(jsonPath("$.captured").value(2))
+                .andExpect(jsonPath("$.queries[1].sql", startsWith("select title from books")))
+                .andExpect(jsonPath("$.queries[1].parameterTypes", hasItem("BigDecimal")))
+                .andExpect(jsonPath("$.queries[1].rows").value(1))
+                .andExpect(jsonPath("$.queries[0].rows").value(0));
+    }
+}
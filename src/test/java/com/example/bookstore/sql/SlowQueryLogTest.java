@@ -0,0 +1,50 @@
+package com.example.bookstore.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLogTest {
+
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(10, 4, false);
+
+    @Test
+    void isSlow_ComparesWithThreshold() {
+        assertFalse(slowQueryLog.isSlow(9_999_999));
+        assertTrue(slowQueryLog.isSlow(10_000_000));
+    }
+
+    @Test
+    void record_KeepsNewestEntriesUpToCapacity() {
+        for (int i = 1; i <= 6; i++) {
+            record("select * from books where id=" + i, i);
+        }
+
+        List<SlowQuery> recent = slowQueryLog.recent();
+        assertEquals(List.of(6L, 5L, 4L, 3L), recent.stream().map(SlowQuery::rows).toList());
+        assertEquals("select * from books where id=?", recent.get(0).sql());
+        assertEquals(List.of("Long"), recent.get(0).parameterTypes());
+        assertEquals(6, slowQueryLog.captured());
+    }
+
+    @Test
+    void clear_EmptiesTheRing() {
+        record("select 1", 1);
+
+        slowQueryLog.clear();
+
+        assertTrue(slowQueryLog.recent().isEmpty());
+        assertEquals(0, slowQueryLog.captured());
+
+        record("select 2", 2);
+        assertEquals(List.of(2L), slowQueryLog.recent().stream().map(SlowQuery::rows).toList());
+    }
+
+    private void record(String sql, long rows) {
+        slowQueryLog.record(sql, List.of("Long"), new Object[] {null, rows}, 20_000_000, rows, null);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bookstore.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlStatementsTest {
+
+    private final CountingStatementInspector inspector = new CountingStatementInspector();
+
+    @Test
+    void shape_IgnoresLiteralsInListLengthsAndWhitespace() {
+        assertEquals("select b.id from books b where b.id in (?) and b.title=? and b.quantity>?",
+                SqlStatements.shape("select b.id from books b\n  where b.id in (?, ?,?) and b.title='it''s' "
+                        + "and b.quantity>10"));
+    }
+
+    @Test
+    void shape_HandlesLongInListsAndLiterals() {
+        String ids = String.join(",", Collections.nCopies(100_000, "?"));
+        String title = "x".repeat(100_000);
+
+        assertEquals("select b.id from books b where b.id in (?) and b.title=? and b.id not in (?, ?x)",
+                SqlStatements.shape("select b.id from books b where b.id in (" + ids + ") and b.title='" + title
+                        + "' and b.id not in (?, ?x)"));
+    }
+
+    @Test
+    void scope_CountsStatementsUntilClosed() {
+        inspector.inspect("select 1");
+        try (SqlStatements.Scope scope = SqlStatements.open()) {
+            inspector.inspect("select * from books where id=?");
+            inspector.inspect("select * from books where id=?");
+            inspector.inspect("select * from authors");
+
+            assertEquals(3, scope.log().count());
+            assertEquals(Map.of("select * from books where id=?", 2, "select * from authors", 1),
+                    scope.log().shapes());
+            assertEquals(2, scope.log().mostRepeated().orElseThrow().getValue());
+        }
+    }
+
+    @Test
+    void nestedScopes_BothRecordInnerStatements() {
+        try (SqlStatements.Scope outer = SqlStatements.open()) {
+            inspector.inspect("select 1");
+            try (SqlStatements.Scope inner = SqlStatements.open()) {
+                inspector.inspect("select 2");
+                assertEquals(1, inner.log().count());
+            }
+            inspector.inspect("select 3");
+            assertEquals(3, outer.log().count());
+        }
+    }
+}
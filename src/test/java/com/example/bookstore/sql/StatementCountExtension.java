@@ -0,0 +1,50 @@
+package com.example.bookstore.sql;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements prepared on the test thread, including those of MockMvc requests and service calls.
+ * Register with {@code @RegisterExtension}, call {@link #reset()} after the fixture is set up, then assert.
+ */
+public class StatementCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private SqlStatements.Scope scope;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        scope = SqlStatements.open();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        scope.close();
+    }
+
+    public void reset() {
+        scope.log().clear();
+    }
+
+    public int count() {
+        return scope.log().count();
+    }
+
+    public Map<String, Integer> shapes() {
+        return scope.log().shapes();
+    }
+
+    public void assertCount(int expected) {
+        assertEquals(expected, count(), () -> "SQL statements: " + shapes());
+    }
+
+    // No statement shape prepared more than once, i.e. no N+1 loading
+    public void assertNoRepeats() {
+        assertTrue(shapes().values().stream().allMatch(times -> times == 1), () -> "Repeated statements: " + shapes());
+    }
+}
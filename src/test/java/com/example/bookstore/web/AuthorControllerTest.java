@@ -1,5 +1,8 @@
 package com.example.bookstore.web;
 
+import com.example.bookstore.cache.AuthorCache;
+import com.example.bookstore.cache.CatalogVersions;
+import com.example.bookstore.cache.CatalogVersions.Section;
 import com.example.bookstore.domain.Author;
 import com.example.bookstore.repository.AuthorRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -33,11 +36,21 @@ class AuthorControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private AuthorCache authorCache;
+
     private Author author;
 
     @BeforeEach
     void setUp() {
         authorRepository.deleteAll();
+        // Rows written straight through the repository bypass the services that move the catalog versions and
+        // evict cached entries, and ids restart whenever another test context recreates the schema
+        catalogVersions.changed(Section.values());
+        authorCache.invalidateAll();
         author = authorRepository.save(Author.builder().name("Author One").build());
     }
 
@@ -79,6 +92,8 @@ class AuthorControllerTest {
     @Test
     void testDeleteAuthor() throws Exception {
         mockMvc.perform(delete("/api/authors/{id}", author.getId()))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(author.getId().intValue())))
+                .andExpect(jsonPath("$.booksDeleted", is(0)));
     }
 }
\ No newline at end of file
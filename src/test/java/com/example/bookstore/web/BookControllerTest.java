@@ -1,29 +1,44 @@
 package com.example.bookstore.web;
 
+import com.example.bookstore.cache.SearchResultCache;
 import com.example.bookstore.domain.Author;
 import com.example.bookstore.domain.Book;
 import com.example.bookstore.domain.Genre;
 import com.example.bookstore.repository.AuthorRepository;
 import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookBitmapIndex;
+import com.example.bookstore.search.BookPriceIndex;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.sql.StatementCountExtension;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -45,6 +60,21 @@ class BookControllerTest {
     @Autowired
     private GenreRepository genreRepository;
 
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private SearchResultCache searchCache;
+
+    @Autowired
+    private BookBitmapIndex bitmapIndex;
+
+    @Autowired
+    private BookPriceIndex priceIndex;
+
+    @RegisterExtension
+    final StatementCountExtension statements = new StatementCountExtension();
+
     private Author author;
     private Genre genre;
     private Book book;
@@ -66,6 +96,10 @@ class BookControllerTest {
                 .genre(genre)
                 .build();
         book = bookRepository.save(book);
+        searchIndex.rebuild();
+        searchCache.invalidateAll();
+        bitmapIndex.rebuild();
+        priceIndex.rebuild();
     }
 
     @Test
@@ -125,6 +159,141 @@ class BookControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    void testGetAllBooks_KeysetPagination() throws Exception {
+        Book second = bookRepository.save(Book.builder()
+                .title("A Second Book")
+                .price(BigDecimal.valueOf(10))
+                .quantity(1)
+                .author(author)
+                .genre(genre)
+                .build());
+
+        mockMvc.perform(get("/api/books").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(book.getId().intValue())));
+
+        mockMvc.perform(get("/api/books").param("after", book.getId().toString()).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(second.getId().intValue())));
+    }
+
+    @Test
+    void testGetAllBooks_SortedByTitle() throws Exception {
+        Book second = bookRepository.save(Book.builder()
+                .title("A Second Book")
+                .price(BigDecimal.valueOf(10))
+                .quantity(1)
+                .author(author)
+                .genre(genre)
+                .build());
+
+        mockMvc.perform(get("/api/books").param("sort", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title", is(second.getTitle())));
+
+        mockMvc.perform(get("/api/books").param("sort", "title").param("after", second.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is(book.getTitle())));
+    }
+
+    @Test
+    void testGetAllBooks_FilteredByGenreAuthorAndStock() throws Exception {
+        Genre horror = genreRepository.save(Genre.builder().name("Horror").build());
+        Author king = authorRepository.save(Author.builder().name("Stephen King").build());
+        Book it = bookRepository.save(Book.builder()
+                .title("It")
+                .price(BigDecimal.valueOf(15))
+                .quantity(2)
+                .author(king)
+                .genre(horror)
+                .build());
+        bitmapIndex.rebuild();
+
+        mockMvc.perform(get("/api/books")
+                        .param("genreId", genre.getId().toString(), horror.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        mockMvc.perform(get("/api/books")
+                        .param("genreId", genre.getId().toString(), horror.getId().toString())
+                        .param("authorId", king.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("It")));
+
+        mockMvc.perform(post("/api/books/{id}/purchase", it.getId()).param("qty", "2"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/books").param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(book.getId().intValue())));
+
+        mockMvc.perform(get("/api/books").param("inStock", "true").param("sort", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Filtered listings are only available sorted by id")));
+    }
+
+    @Test
+    void testGetAllBooks_PriceRange() throws Exception {
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Book.builder()
+                                .title("Cheap Book")
+                                .price(new BigDecimal("12.50"))
+                                .quantity(1)
+                                .author(author)
+                                .genre(genre)
+                                .build())))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/books").param("minPrice", "10").param("maxPrice", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title", is("Cheap Book")))
+                .andExpect(jsonPath("$[1].id", is(book.getId().intValue())));
+
+        mockMvc.perform(get("/api/books").param("minPrice", "12.51"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(book.getId().intValue())));
+
+        mockMvc.perform(get("/api/books").param("maxPrice", "30").param("sort", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Price ranges are only available sorted by price")));
+    }
+
+    @Test
+    void testReadEndpoints_OneStatementEach() throws Exception {
+        statements.reset();
+        mockMvc.perform(get("/api/books/{id}", book.getId())).andExpect(status().isOk());
+        statements.assertCount(1);
+
+        statements.reset();
+        mockMvc.perform(get("/api/books").param("sort", "title")).andExpect(status().isOk());
+        statements.assertCount(1);
+
+        statements.reset();
+        mockMvc.perform(get("/api/books/search").param("author", "rowling")).andExpect(status().isOk());
+        statements.assertCount(1);
+
+        statements.reset();
+        mockMvc.perform(get("/api/books").param("genreId", genre.getId().toString())).andExpect(status().isOk());
+        statements.assertCount(1);
+    }
+
+    @Test
+    void testGetAllBooks_UnsupportedSort() throws Exception {
+        mockMvc.perform(get("/api/books").param("sort", "quantity"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unsupported sort: quantity")));
+    }
+
     @Test
     void testSearchBooksByTitle() throws Exception {
         mockMvc.perform(get("/api/books/search")
@@ -134,6 +303,20 @@ class BookControllerTest {
                 .andExpect(jsonPath("$[0].title", is(book.getTitle())));
     }
 
+    @Test
+    void testSearchFacets() throws Exception {
+        mockMvc.perform(get("/api/books/search/facets").param("title", "harry"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.total", is(1)))
+                .andExpect(jsonPath("$.genres[0].name", is("Fantasy")))
+                .andExpect(jsonPath("$.genres[0].count", is(1)))
+                .andExpect(jsonPath("$.authors[0].name", is("J.K. Rowling")))
+                .andExpect(jsonPath("$.prices[1].from", is(10)))
+                .andExpect(jsonPath("$.prices[1].to", is(25)))
+                .andExpect(jsonPath("$.prices[2].count", is(1)));
+    }
+
     @Test
     void testSearchBooksByAuthor() throws Exception {
         mockMvc.perform(get("/api/books/search")
@@ -151,4 +334,169 @@ class BookControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].genre.name", is(genre.getName())));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExportBooksAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/books/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("books.csv")))
+                .andExpect(content().string(containsString(
+                        book.getId() + ",Harry Potter and the Philosopher's Stone,30.00,50,")));
+    }
+
+    @Test
+    void testExportBooksAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"title\":\"" + book.getTitle() + "\"")));
+    }
+
+    @Test
+    void testExportBooks_UnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/api/books/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBulkCreateBooks() throws Exception {
+        Book valid = Book.builder()
+                .title("Bulk Book")
+                .price(BigDecimal.valueOf(15))
+                .quantity(2)
+                .author(author)
+                .genre(genre)
+                .build();
+        Book invalid = Book.builder()
+                .title("Missing Genre")
+                .price(BigDecimal.valueOf(15))
+                .quantity(2)
+                .author(author)
+                .genre(Genre.builder().id(-1L).build())
+                .build();
+
+        mockMvc.perform(post("/api/books/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, valid, invalid))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested", is(3)))
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.ids", hasSize(2)))
+                .andExpect(jsonPath("$.errors[0].index", is(2)))
+                .andExpect(jsonPath("$.errors[0].field", is("genre")));
+
+        mockMvc.perform(get("/api/books/search").param("title", "bulk book"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void testCreateAll_EmptyReferencesAreItemErrors() throws Exception {
+        String books = """
+                [{"title": "No Author Id", "price": 10, "quantity": 1, "author": {}, "genre": {"id": %d}},
+                 {"title": "No Genre Id", "price": 10, "quantity": 1, "author": {}, "genre": {}}]
+                """.formatted(genre.getId());
+
+        mockMvc.perform(post("/api/books/bulk").contentType(MediaType.APPLICATION_JSON).content(books))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(0)))
+                .andExpect(jsonPath("$.errors", hasSize(3)))
+                .andExpect(jsonPath("$.errors[0].index", is(0)))
+                .andExpect(jsonPath("$.errors[0].field", is("author")))
+                .andExpect(jsonPath("$.errors[0].message", is("Author id is missing")))
+                .andExpect(jsonPath("$.errors[1].index", is(1)))
+                .andExpect(jsonPath("$.errors[2].field", is("genre")))
+                .andExpect(jsonPath("$.errors[2].message", is("Genre id is missing")));
+    }
+
+    @Test
+    void testPurchase() throws Exception {
+        mockMvc.perform(post("/api/books/{id}/purchase", book.getId()).param("qty", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.purchased", is(20)))
+                .andExpect(jsonPath("$.remaining", is(30)));
+
+        mockMvc.perform(post("/api/books/{id}/purchase", book.getId()).param("qty", "31"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Insufficient stock for book " + book.getId()
+                        + ": requested 31, available 30")));
+
+        mockMvc.perform(post("/api/books/{id}/purchase", book.getId() + 1000).param("qty", "1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetBookById_IfNoneMatch_ReturnsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/books/{id}", book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/books/{id}", book.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Author renamed = authorRepository.findById(author.getId()).orElseThrow();
+        renamed.setName("Robert Galbraith");
+        mockMvc.perform(put("/api/authors/{id}", author.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(renamed)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/books/{id}", book.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author.name", is("Robert Galbraith")));
+    }
+
+    @Test
+    void testGetAllBooks_ETagFollowsCatalogWrites() throws Exception {
+        String etag = mockMvc.perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/books/{id}/purchase", book.getId()).param("qty", "1"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$[0].quantity", is(49)));
+    }
+
+    @Test
+    void testUpdateBook_IfMatch() throws Exception {
+        String etag = mockMvc.perform(get("/api/books/{id}", book.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        book.setTitle("Conditional Title");
+
+        mockMvc.perform(put("/api/books/{id}", book.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"99.0.0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(book)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/books/{id}", book.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(book)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+
+        mockMvc.perform(put("/api/books/{id}", book.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(book)))
+                .andExpect(status().isPreconditionFailed());
+    }
+}
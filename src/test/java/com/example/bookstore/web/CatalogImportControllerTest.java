@@ -0,0 +1,171 @@
+package com.example.bookstore.web;
+
+import com.example.bookstore.cache.SearchResultCache;
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookSearchIndex;
+import com.example.bookstore.search.SuggestIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "bookstore.import.chunk-size=2")
+@AutoConfigureMockMvc
+class CatalogImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private SearchResultCache searchCache;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+        authorRepository.save(Author.builder().name("Terry Pratchett").build());
+        searchIndex.rebuild();
+        searchCache.invalidateAll();
+        suggestIndex.rebuild();
+    }
+
+    @Test
+    void importCsv_ResolvesNamesAndReportsRowErrors() throws Exception {
+        String csv = """
+                Genre,Title,Author,Price,Quantity
+                Fantasy,Mort,terry pratchett,12.50,3
+                Fantasy,"Guards! Guards!",Terry Pratchett,11.00,4
+                Science Fiction,"Dune, Part One",Frank Herbert,abc,1
+                Science Fiction,Hyperion,Dan Simmons,15.00,-1
+                Science Fiction,Ilium,Dan Simmons,14.00,2
+                """;
+
+        String id = start(post("/api/imports").contentType("text/csv").content(csv));
+
+        finished(id)
+                .andExpect(jsonPath("$.state", is("COMPLETED")))
+                .andExpect(jsonPath("$.rowsRead", is(5)))
+                .andExpect(jsonPath("$.committedRows", is(5)))
+                .andExpect(jsonPath("$.booksCreated", is(3)))
+                .andExpect(jsonPath("$.authorsCreated", is(1)))
+                .andExpect(jsonPath("$.genresCreated", is(2)))
+                .andExpect(jsonPath("$.errorCount", is(2)))
+                .andExpect(jsonPath("$.errors[0].index", is(3)))
+                .andExpect(jsonPath("$.errors[0].field", is("price")))
+                .andExpect(jsonPath("$.errors[1].index", is(4)))
+                .andExpect(jsonPath("$.errors[1].field", is("quantity")));
+
+        assertEquals(2, authorRepository.count());
+        assertEquals(3, bookRepository.count());
+        mockMvc.perform(get("/api/books/search").param("author", "pratchett"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get("/api/suggest").param("prefix", "simm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text", is("Dan Simmons")))
+                .andExpect(jsonPath("$[0].weight", is(1)));
+    }
+
+    @Test
+    void importCsv_ResumeSkipsCommittedRows() throws Exception {
+        String truncated = """
+                title,price,quantity,author,genre
+                Mort,12.50,3,Terry Pratchett,Fantasy
+                Eric,9.00,2,Terry Pratchett,Fantasy
+                "Small Gods,10.00,1,Terry Pratchett,Fantasy
+                """;
+        String id = start(post("/api/imports").contentType("text/csv").content(truncated));
+
+        finished(id)
+                .andExpect(jsonPath("$.state", is("FAILED")))
+                .andExpect(jsonPath("$.committedRows", is(2)));
+
+        String full = """
+                title,price,quantity,author,genre
+                Mort,12.50,3,Terry Pratchett,Fantasy
+                Eric,9.00,2,Terry Pratchett,Fantasy
+                Small Gods,10.00,1,Terry Pratchett,Fantasy
+                """;
+        assertEquals(id, start(post("/api/imports").param("resume", id).contentType("text/csv").content(full)));
+
+        finished(id)
+                .andExpect(jsonPath("$.state", is("COMPLETED")))
+                .andExpect(jsonPath("$.committedRows", is(3)))
+                .andExpect(jsonPath("$.booksCreated", is(3)));
+
+        assertEquals(3, bookRepository.count());
+    }
+
+    @Test
+    void importCsv_MissingColumn() throws Exception {
+        mockMvc.perform(post("/api/imports").contentType("text/csv").content("title,price\nMort,1\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getById_UnknownJob() throws Exception {
+        mockMvc.perform(get("/api/imports/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String start(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String id = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+        assertEquals("/api/imports/" + id, result.getResponse().getHeader("Location"));
+        return id;
+    }
+
+    private ResultActions finished(String id) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            ResultActions job = mockMvc.perform(get("/api/imports/" + id)).andExpect(status().isOk());
+            String state = objectMapper.readTree(job.andReturn().getResponse().getContentAsString())
+                    .get("state").asText();
+            if (!state.equals("RUNNING")) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Import " + id + " still running");
+    }
+}
@@ -1,22 +1,40 @@
 package com.example.bookstore.web;
 
+import com.example.bookstore.cache.GenreCache;
+import com.example.bookstore.cache.CatalogVersions;
+import com.example.bookstore.cache.CatalogVersions.Section;
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
 import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.BookSearchIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -30,14 +48,33 @@ class GenreControllerTest {
     @Autowired
     private GenreRepository genreRepository;
 
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private GenreCache genreCache;
+
     private Genre genre;
 
     @BeforeEach
     void setUp() {
         genreRepository.deleteAll();
+        // Rows written straight through the repository bypass the services that move the catalog versions and
+        // evict cached entries, and ids restart whenever another test context recreates the schema
+        catalogVersions.changed(Section.values());
+        genreCache.invalidateAll();
         genre = genreRepository.save(Genre.builder().name("Fantasy").build());
     }
 
@@ -66,6 +103,35 @@ class GenreControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    void testGetAllGenres_ServesSnapshotUntilAGenreChanges() throws Exception {
+        MvcResult plain = mockMvc.perform(get("/api/genres"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+        MvcResult gzipped = mockMvc.perform(get("/api/genres").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        byte[] json = plain.getResponse().getContentAsByteArray();
+        assertArrayEquals(json, new GZIPInputStream(
+                new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray())).readAllBytes());
+        String etag = plain.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/genres").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/genres")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Genre.builder().name("Poetry").build())))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/genres"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].name", is("Poetry")));
+    }
+
     @Test
     void testUpdateGenre() throws Exception {
         genre.setName("Updated Genre");
@@ -79,6 +145,40 @@ class GenreControllerTest {
     @Test
     void testDeleteGenre() throws Exception {
         mockMvc.perform(delete("/api/genres/{id}", genre.getId()))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booksDeleted", is(0)));
+    }
+
+    @Test
+    void testDeleteGenre_DeletesItsBooksInBulk() throws Exception {
+        Author author = authorRepository.save(Author.builder().name("Genre Test Author").build());
+        Genre other = genreRepository.save(Genre.builder().name("Horror").build());
+        for (int i = 0; i < 5; i++) {
+            saveBook("Fantasy " + i, author, genre);
+        }
+        saveBook("Horror 1", author, other);
+        searchIndex.rebuild();
+
+        mockMvc.perform(delete("/api/genres/{id}", genre.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(genre.getId().intValue())))
+                .andExpect(jsonPath("$.booksDeleted", is(5)));
+
+        assertEquals(1, bookRepository.count());
+        assertTrue(genreRepository.findById(genre.getId()).isEmpty());
+        mockMvc.perform(get("/api/books/search").param("title", "fantasy"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/genres/{id}", genre.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    private void saveBook(String title, Author author, Genre genre) {
+        bookRepository.save(Book.builder()
+                .title(title)
+                .price(BigDecimal.TEN)
+                .quantity(1)
+                .author(author)
+                .genre(genre)
+                .build());
     }
 }
\ No newline at end of file
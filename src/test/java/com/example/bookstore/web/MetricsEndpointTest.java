@@ -0,0 +1,42 @@
+package com.example.bookstore.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheus_ExposesRequestServiceQueryPoolCacheAndSearchMetrics() throws Exception {
+        mockMvc.perform(get("/api/books/search").param("title", "hobbit")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/genres")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\","
+                                + "outcome=\"SUCCESS\",status=\"200\",uri=\"/api/books/search\"")))
+                .andExpect(content().string(containsString(
+                        "bookstore_service_seconds_count{class=\"com.example.bookstore.service.impl.BookServiceImpl\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+                .andExpect(content().string(containsString("hibernate_statements_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+                .andExpect(content().string(containsString("bookstore_cache_gets_total{cache=\"snapshots\"")))
+                .andExpect(content().string(containsString("bookstore_cache_hit_ratio{cache=\"search\"")))
+                .andExpect(content().string(containsString("bookstore_search_results_books_bucket")));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bookstore.web;
+
+import com.example.bookstore.sql.CountingStatementInspector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementBudgetFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatementBudgetFilter filter = new StatementBudgetFilter(meterRegistry, 4, 2);
+    private final CountingStatementInspector inspector = new CountingStatementInspector();
+
+    @Test
+    void requestWithinBudget_NoViolation() throws Exception {
+        run("select * from books where id=1", "select * from books where id=2", "select * from authors");
+
+        assertEquals(0, violations("budget"));
+        assertEquals(0, violations("repeated"));
+    }
+
+    @Test
+    void sameShapeTooOften_CountedAsRepeated() throws Exception {
+        run("select * from authors where id=1", "select * from authors where id=2",
+                "select * from authors where id=3");
+
+        assertEquals(0, violations("budget"));
+        assertEquals(1, violations("repeated"));
+    }
+
+    @Test
+    void tooManyStatements_CountedAsOverBudget() throws Exception {
+        run("select 'a'", "select * from books", "select * from authors", "select * from genres",
+                "select * from book_trigrams");
+
+        assertEquals(1, violations("budget"));
+        assertEquals(0, violations("repeated"));
+    }
+
+    private void run(String... statements) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/books"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    for (String sql : statements) {
+                        inspector.inspect(sql);
+                    }
+                });
+    }
+
+    private double violations(String kind) {
+        Counter counter = meterRegistry.find("bookstore.sql.budget.violations").tag("kind", kind).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.bookstore.web;
+
+import com.example.bookstore.domain.Author;
+import com.example.bookstore.domain.Book;
+import com.example.bookstore.domain.Genre;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.GenreRepository;
+import com.example.bookstore.search.SuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SuggestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    private Book hobbit;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        genreRepository.deleteAll();
+
+        Author tolkien = authorRepository.save(Author.builder().name("J.R.R. Tolkien").build());
+        Genre fantasy = genreRepository.save(Genre.builder().name("Fantasy").build());
+        hobbit = bookRepository.save(Book.builder()
+                .title("The Hobbit")
+                .price(BigDecimal.valueOf(15))
+                .quantity(3)
+                .author(tolkien)
+                .genre(fantasy)
+                .build());
+        bookRepository.save(Book.builder()
+                .title("The Fellowship of the Ring")
+                .price(BigDecimal.valueOf(20))
+                .quantity(8)
+                .author(tolkien)
+                .genre(fantasy)
+                .build());
+        suggestIndex.rebuild();
+    }
+
+    @Test
+    void testSuggest() throws Exception {
+        mockMvc.perform(get("/api/suggest").param("prefix", "the"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].type", is("title")))
+                .andExpect(jsonPath("$[0].text", is("The Fellowship of the Ring")))
+                .andExpect(jsonPath("$[0].weight", is(8)))
+                .andExpect(jsonPath("$[1].id", is(hobbit.getId().intValue())));
+
+        mockMvc.perform(get("/api/suggest").param("prefix", "tolk"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].type", is("author")))
+                .andExpect(jsonPath("$[0].weight", is(2)));
+    }
+
+    @Test
+    void testSuggest_FollowsPurchases() throws Exception {
+        mockMvc.perform(post("/api/books/{id}/purchase", hobbit.getId() + 1).param("qty", "8"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/suggest").param("prefix", "the").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].text", is("The Hobbit")));
+    }
+
+    @Test
+    void testSuggest_InvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/suggest").param("prefix", "the").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Limit must be positive")));
+    }
+}